@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Levanta una flota local: un agregador en AGGREGATOR_PORT y N instancias en los puertos siguientes que le
+# reportan su inventario. Al terminar de arrancar muestra GET /api/v2/fleet/inventory; Ctrl+C detiene todo.
+#
+# Uso:
+#   mvn -DskipTests package && ./fleet-demo.sh [instancias]
+#
+# Variables opcionales: AGGREGATOR_PORT (8089), JAVA (java), SYNC_INTERVAL (2s).
+set -euo pipefail
+
+INSTANCES=${1:-3}
+AGGREGATOR_PORT=${AGGREGATOR_PORT:-8089}
+JAVA=${JAVA:-java}
+SYNC_INTERVAL=${SYNC_INTERVAL:-2s}
+JAR=target/DemoApi9-0.0.1-SNAPSHOT.jar
+AGGREGATOR_URL="http://localhost:${AGGREGATOR_PORT}"
+
+cd "$(dirname "$0")"
+mkdir -p target/fleet
+pids=()
+trap 'kill "${pids[@]}" 2>/dev/null || true; wait 2>/dev/null || true' EXIT
+
+start() {
+  local port=$1
+  shift
+  # Cada instancia con su propio directorio de auditoría para no rotar los mismos archivos
+  "$JAVA" -jar "$JAR" --server.port="$port" --logging.level.root=WARN \
+    --app.audit.directory="target/fleet/audit-$port" --app.fleet.sync-interval="$SYNC_INTERVAL" "$@" \
+    > "target/fleet/instance-$port.log" 2>&1 &
+  pids+=("$!")
+}
+
+wait_ready() {
+  local port=$1
+  until curl -sf -o /dev/null "http://localhost:${port}/api/v2/inventory"; do
+    sleep 0.2
+  done
+}
+
+start "$AGGREGATOR_PORT" --app.fleet.aggregator.enabled=true
+wait_ready "$AGGREGATOR_PORT"
+for i in $(seq 1 "$INSTANCES"); do
+  start $((AGGREGATOR_PORT + i)) --app.fleet.aggregator-url="$AGGREGATOR_URL"
+done
+for i in $(seq 1 "$INSTANCES"); do
+  wait_ready $((AGGREGATOR_PORT + i))
+done
+
+echo "Agregador en ${AGGREGATOR_URL}, ${INSTANCES} instancias en los puertos $((AGGREGATOR_PORT + 1))-$((AGGREGATOR_PORT + INSTANCES))"
+echo "Logs en target/fleet/. Ctrl+C para detener."
+while true; do
+  sleep 5
+  curl -s "${AGGREGATOR_URL}/api/v2/fleet/inventory" | head -c 600
+  echo
+done
@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+# Ejecuta el suite de regresión de latencia (LatencySloTest) y deja las distribuciones de percentiles
+# en target/load-test/<escenario>.hgrm. Falla si el p99 o el throughput de algún escenario empeoran
+# respecto a src/test/resources/load/slo-baselines.properties más que la tolerancia.
+#
+# Uso:
+#   ./load-test.sh                                  # compara con las líneas base
+#   ./load-test.sh -Dloadtest.record=true           # además escribe target/load-test/slo-baselines.properties
+#   ./load-test.sh -Dloadtest.users.rate=1000 -Dloadtest.seconds=60
+#
+# Propiedades: loadtest.seconds (20), loadtest.warmup-seconds (5), loadtest.tolerance (0.2),
+# loadtest.<escenario>.rate. Los argumentos se pasan tal cual a Maven.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+mvn -B -Ploadtest test "$@"
+echo "Distribuciones: $(pwd)/target/load-test"
@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Mide el tiempo hasta la primera petición (time-to-first-request): desde que se lanza la JVM
+# hasta la primera respuesta 200 de GET /api/v2/inventory. Repite la medición y muestra la mediana.
+#
+# Uso:
+#   mvn -DskipTests package              && ./measure-startup.sh baseline [repeticiones]
+#   mvn -DskipTests -Pstartup package    && ./measure-startup.sh startup  [repeticiones]
+#
+# "startup" usa el jar extraído en target/startup con el archivo CDS y la inicialización AOT.
+# Variables opcionales: PORT (18089), JAVA (java), EXTRA_OPTS (opciones JVM adicionales).
+set -euo pipefail
+
+MODE=${1:-baseline}
+RUNS=${2:-5}
+PORT=${PORT:-18089}
+JAVA=${JAVA:-java}
+URL="http://localhost:${PORT}/api/v2/inventory"
+
+cd "$(dirname "$0")"
+case "$MODE" in
+  baseline)
+    CMD=("$JAVA" ${EXTRA_OPTS:-} -jar target/DemoApi9-0.0.1-SNAPSHOT.jar)
+    ;;
+  startup)
+    CMD=("$JAVA" ${EXTRA_OPTS:-} -XX:SharedArchiveFile=target/startup/application.jsa
+         -Dspring.aot.enabled=true -jar target/startup/DemoApi9-0.0.1-SNAPSHOT.jar)
+    ;;
+  *)
+    echo "Modo desconocido: $MODE (baseline | startup)" >&2
+    exit 1
+    ;;
+esac
+
+now_ms() { date +%s%3N; }
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+  start=$(now_ms)
+  "${CMD[@]}" --server.port="$PORT" --logging.level.root=WARN > "target/startup-$MODE.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "La aplicación terminó antes de responder; ver target/startup-$MODE.log" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  elapsed=$(( $(now_ms) - start ))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "[$MODE] ejecución $run: ${elapsed} ms"
+  results+=("$elapsed")
+done
+
+median=$(printf '%s\n' "${results[@]}" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+echo "[$MODE] mediana time-to-first-request: ${median} ms (${RUNS} ejecuciones)"
@@ -0,0 +1,119 @@
+package pe.edu.vallegrande.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pe.edu.vallegrande.controller.secure.ApiInventoryController;
+import pe.edu.vallegrande.inventory.ApiInventory;
+import pe.edu.vallegrande.inventory.DiscoveredEndpoint;
+import pe.edu.vallegrande.inventory.EndpointSnapshot;
+import pe.edu.vallegrande.inventory.InventoryService;
+import pe.edu.vallegrande.metrics.TrafficRegistry;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción, serialización y entrega del inventario de APIs.
+ * {@code buildLegacyInventoryMap} reproduce la construcción por petición con HashMap anidados
+ * que usaba el controlador antes del inventario precalculado, como referencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    private ObjectMapper objectMapper;
+    private InventoryService inventoryService;
+    private ApiInventoryController controller;
+    private EndpointSnapshot snapshot;
+    private ApiInventory inventory;
+    private String currentEtag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        snapshot = new EndpointSnapshot(List.of(
+                new DiscoveredEndpoint("GET", "/api/users", "v1", DiscoveredEndpoint.Zone.VULNERABLE, false, "UserControllerV1#getAllUsers"),
+                new DiscoveredEndpoint("GET", "/api/users/admin/debug", "v1", DiscoveredEndpoint.Zone.VULNERABLE, false, "UserControllerV1#getDebugInfo"),
+                new DiscoveredEndpoint("GET", "/api/v2/users", "v2", DiscoveredEndpoint.Zone.SECURE, true, "UserControllerV2#getAllUsers"),
+                new DiscoveredEndpoint("GET", "/api/v2/users/{id}", "v2", DiscoveredEndpoint.Zone.SECURE, true, "UserControllerV2#getUserById"),
+                new DiscoveredEndpoint("GET", "/legacy/test", "legacy", DiscoveredEndpoint.Zone.VULNERABLE, false, "LegacyApiController#testEndpoint")));
+        inventoryService = new InventoryService(objectMapper);
+        inventoryService.publish(snapshot);
+        inventory = inventoryService.getInventory();
+        currentEtag = inventoryService.getInventoryDocument().etag();
+        controller = new ApiInventoryController(inventoryService, (TrafficRegistry) null);
+    }
+
+    @Benchmark
+    public Map<String, Object> buildLegacyInventoryMap() {
+        Map<String, Object> result = new HashMap<>();
+        Map<String, Object> versions = new HashMap<>();
+        Map<String, Object> v1Info = new HashMap<>();
+        v1Info.put("status", "DEPRECATED");
+        v1Info.put("deprecationDate", "2024-01-01");
+        v1Info.put("sunsetDate", "2024-06-01");
+        v1Info.put("description", "Legacy version - use v2 instead");
+        v1Info.put("securityIssues", "Exposes sensitive data");
+        versions.put("v1", v1Info);
+        Map<String, Object> v2Info = new HashMap<>();
+        v2Info.put("status", "CURRENT");
+        v2Info.put("releaseDate", "2024-01-15");
+        v2Info.put("description", "Current stable version");
+        v2Info.put("features", "Secure DTOs, proper documentation, versioned endpoints");
+        versions.put("v2", v2Info);
+        result.put("versions", versions);
+        result.put("currentVersion", "v2");
+        result.put("documentationUrl", "/swagger-ui.html");
+        result.put("lastUpdated", "2024-02-01");
+        return result;
+    }
+
+    @Benchmark
+    public byte[] serializeLegacyInventoryMap() throws Exception {
+        return objectMapper.writeValueAsBytes(buildLegacyInventoryMap());
+    }
+
+    @Benchmark
+    public byte[] serializeInventoryModel() throws Exception {
+        return objectMapper.writeValueAsBytes(inventory);
+    }
+
+    @Benchmark
+    public InventoryService publishSnapshot() {
+        inventoryService.publish(snapshot);
+        return inventoryService;
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> servePrecomputedInventory() {
+        return controller.getApiInventory(null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> servePrecompressedInventory() {
+        return controller.getApiInventory(null, "gzip, deflate, br");
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> serveNotModified() {
+        return controller.getApiInventory(currentEtag, null);
+    }
+}
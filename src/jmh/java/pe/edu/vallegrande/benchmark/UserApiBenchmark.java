@@ -0,0 +1,123 @@
+package pe.edu.vallegrande.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pe.edu.vallegrande.controller.secure.UserControllerV2;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+import pe.edu.vallegrande.service.UserLookupService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminos calientes de la API de usuarios V2 con 1k, 100k y 1M usuarios cargados
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class UserApiBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int HOT_USERS = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int userCount;
+
+    private UserRepository repository;
+    private UserControllerV2 controller;
+    private ObjectMapper objectMapper;
+    private User user;
+    private UserResponseDto dto;
+    private List<UserResponseDto> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        repository = new UserRepository();
+        for (long i = repository.count(); i < userCount; i++) {
+            repository.save(new User(null, "user" + i, "user" + i + "@example.com", "password" + i));
+        }
+        UserLookupService lookupService = new UserLookupService(repository, 10_000, Duration.ofMinutes(10),
+                Duration.ofSeconds(30), new SimpleMeterRegistry());
+        controller = new UserControllerV2(repository, objectMapper, null, lookupService, Runnable::run);
+        user = repository.findById(userCount / 2).orElseThrow();
+        dto = UserResponseDto.from(user);
+        page = new ArrayList<>(PAGE_SIZE);
+        repository.scan(userCount / 2, PAGE_SIZE, u -> page.add(UserResponseDto.from(u)));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, userCount + 1);
+    }
+
+    @Benchmark
+    public ResponseEntity<UserResponseDto> getUserById() {
+        return controller.getUserById(randomId());
+    }
+
+    /** Conjunto de trabajo que cabe en la caché de {@link UserLookupService}. */
+    @Benchmark
+    public ResponseEntity<UserResponseDto> getHotUserById() {
+        return controller.getUserById(ThreadLocalRandom.current().nextLong(1, Math.min(HOT_USERS, userCount) + 1));
+    }
+
+    /** Subcadena de un username concreto (mismo sufijo que 10 usuarios por cada millón). */
+    @Benchmark
+    public List<UserResponseDto> searchSubstring() {
+        List<UserResponseDto> result = new ArrayList<>(PAGE_SIZE);
+        repository.search(Long.toString(randomId() % 100_000 + 10_000), false, 0, PAGE_SIZE,
+                u -> result.add(UserResponseDto.from(u)));
+        return result;
+    }
+
+    @Benchmark
+    public List<UserResponseDto> searchPrefix() {
+        List<UserResponseDto> result = new ArrayList<>(PAGE_SIZE);
+        repository.search("user" + randomId() / 10, true, 0, PAGE_SIZE, u -> result.add(UserResponseDto.from(u)));
+        return result;
+    }
+
+    @Benchmark
+    public UserResponseDto mapUserToDto() {
+        return UserResponseDto.from(user);
+    }
+
+    @Benchmark
+    public byte[] serializeUserDto() throws Exception {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public List<UserResponseDto> buildPage() {
+        List<UserResponseDto> result = new ArrayList<>(PAGE_SIZE);
+        repository.scan(randomId(), PAGE_SIZE, u -> result.add(UserResponseDto.from(u)));
+        return result;
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
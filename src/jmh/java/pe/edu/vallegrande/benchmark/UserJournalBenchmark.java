@@ -0,0 +1,128 @@
+package pe.edu.vallegrande.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserJournal;
+import pe.edu.vallegrande.repository.UserRepository;
+import pe.edu.vallegrande.repository.UserStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Persistencia de usuarios: tiempo de recuperación al arrancar (desde un snapshot o reaplicando todo el
+ * WAL) y coste de un save confirmado en disco con varios hilos escribiendo (group commit).
+ */
+public class UserJournalBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Recovery {
+
+        @Param({"snapshot", "wal"})
+        public String source;
+
+        @Param({"1000000"})
+        public int userCount;
+
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("user-journal-bench");
+            UserJournal journal = UserJournal.fileBacked(directory, Duration.ZERO);
+            UserRepository repository = new UserRepository(UserStorage.create("heap"), journal);
+            List<User> batch = new ArrayList<>();
+            for (long i = repository.count(); i < userCount; i++) {
+                batch.add(new User(null, "user" + i, "user" + i + "@example.com", "$2a$10$abcdefghijklmnopqrstuv" + i));
+                if (batch.size() == 10_000) {
+                    repository.saveAll(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            repository.saveAll(batch);
+            if (source.equals("snapshot")) {
+                // close() escribe el snapshot final; sin él, el arranque reaplica todo el WAL
+                journal.close();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Writes {
+
+        @Param({"none", "wal"})
+        public String journal;
+
+        UserJournal userJournal;
+        UserRepository repository;
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("user-journal-bench");
+            userJournal = journal.equals("wal") ? UserJournal.fileBacked(directory, Duration.ZERO) : UserJournal.NONE;
+            repository = new UserRepository(UserStorage.create("heap"), userJournal);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            userJournal.close();
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    @Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+    public long recover(Recovery state) {
+        return new UserRepository(UserStorage.create("heap"),
+                UserJournal.fileBacked(state.directory, Duration.ZERO)).count();
+    }
+
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 2, time = 1)
+    @Measurement(iterations = 3, time = 2)
+    @Fork(1)
+    public User durableSave(Writes state) {
+        return state.repository.save(new User(null, "user", null, "$2a$10$abcdefghijklmnopqrstuv"));
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package pe.edu.vallegrande.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.json.UserJsonModule;
+import pe.edu.vallegrande.model.User;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de usuarios: databind reflexivo frente a {@link UserJsonModule}.
+ * Páginas de 100 elementos, como GET /api/v2/users y GET /api/users con pocos usuarios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"reflective", "hand-written"})
+    public String serializer;
+
+    private ObjectMapper objectMapper;
+    private UserResponseDto dto;
+    private List<UserResponseDto> dtoPage;
+    private List<User> userPage;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("hand-written".equals(serializer)) {
+            builder.modulesToInstall(new UserJsonModule());
+        }
+        objectMapper = builder.build();
+        dtoPage = new ArrayList<>(PAGE_SIZE);
+        userPage = new ArrayList<>(PAGE_SIZE);
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            User user = new User(i, "user" + i, "user" + i + "@example.com", "password" + i);
+            userPage.add(user);
+            dtoPage.add(UserResponseDto.from(user));
+        }
+        dto = dtoPage.get(0);
+    }
+
+    @Benchmark
+    public int serializeUserDto() throws Exception {
+        out.reset();
+        objectMapper.writeValue(out, dto);
+        return out.size();
+    }
+
+    @Benchmark
+    public int serializeDtoPage() throws Exception {
+        out.reset();
+        objectMapper.writeValue(out, dtoPage);
+        return out.size();
+    }
+
+    @Benchmark
+    public int serializeV1UserPage() throws Exception {
+        out.reset();
+        objectMapper.writeValue(out, userPage);
+        return out.size();
+    }
+}
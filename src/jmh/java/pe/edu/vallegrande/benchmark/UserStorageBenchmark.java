@@ -0,0 +1,82 @@
+package pe.edu.vallegrande.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+import pe.edu.vallegrande.repository.UserStorage;
+
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara los modos de almacenamiento de usuarios: heap por usuario (impreso al preparar el estado)
+ * y coste de lectura. Para ver el efecto en el GC: -Djmh.args="UserStorageBenchmark -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class UserStorageBenchmark {
+
+    @Param({"heap", "columnar", "columnar-offheap"})
+    public String storage;
+
+    @Param({"1000000"})
+    public int userCount;
+
+    private UserRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        repository = new UserRepository(UserStorage.create(storage));
+        for (long i = repository.count(); i < userCount; i++) {
+            repository.save(new User(null, "user" + i, "user" + i + "@example.com",
+                    "$2a$10$abcdefghijklmnopqrstuv" + i));
+        }
+        long after = usedHeap();
+        System.out.printf("%n[%s] heap per user: %d bytes%n", storage, (after - before) / userCount);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, userCount + 1);
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public Optional<User> findByUsername() {
+        return repository.findByUsername("user" + randomId());
+    }
+
+    @Benchmark
+    public long scanPage(Blackhole blackhole) {
+        return repository.scan(randomId(), 100, blackhole::consume);
+    }
+}
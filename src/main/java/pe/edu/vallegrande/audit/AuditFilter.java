@@ -0,0 +1,120 @@
+package pe.edu.vallegrande.audit;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import pe.edu.vallegrande.inventory.EndpointDiscovery;
+import pe.edu.vallegrande.lifecycle.RouteTable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Audita las llamadas a los handlers marcados con {@link Audited}: endpoint, versión, cliente, estado y
+ * duración.
+ * <p>
+ * Es el primer filtro de la cadena para registrar también las peticiones que otros filtros o interceptores
+ * rechazan (410 de {@code SunsetFilter}, 429/503 del limitador). Las rutas auditadas se compilan en una
+ * {@link RouteTable} al arrancar; las demás peticiones solo pagan la búsqueda en la tabla.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AuditFilter implements Filter {
+
+    private static final String HANDLER_MAPPING_BEAN = "requestMappingHandlerMapping";
+
+    private final AuditLog auditLog;
+
+    private volatile RouteTable<AuditedEndpoint[]> routes = RouteTable.<AuditedEndpoint[]>builder().build();
+
+    public AuditFilter(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        // Igual que EndpointDiscovery: el handler mapping no se inyecta para no crear un ciclo con Spring MVC
+        routes = compile(event.getApplicationContext()
+                .getBean(HANDLER_MAPPING_BEAN, RequestMappingHandlerMapping.class));
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        AuditedEndpoint endpoint = find(routes.match(path(request)), request.getMethod());
+        if (endpoint == null) {
+            chain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+        long start = System.nanoTime();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            chain.doFilter(servletRequest, servletResponse);
+            status = ((HttpServletResponse) servletResponse).getStatus();
+        } finally {
+            auditLog.record(endpoint, request.getRemoteAddr(), status,
+                    System.currentTimeMillis(), System.nanoTime() - start);
+        }
+    }
+
+    static RouteTable<AuditedEndpoint[]> compile(RequestMappingHandlerMapping handlerMapping) {
+        Map<String, List<AuditedEndpoint>> byPath = new LinkedHashMap<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            HandlerMethod handlerMethod = entry.getValue();
+            if (!AnnotatedElementUtils.hasAnnotation(handlerMethod.getMethod(), Audited.class)) {
+                continue;
+            }
+            Class<?> controller = handlerMethod.getBeanType();
+            String handler = controller.getSimpleName() + "#" + handlerMethod.getMethod().getName();
+            Set<RequestMethod> methods = entry.getKey().getMethodsCondition().getMethods();
+            for (String path : entry.getKey().getPatternValues()) {
+                String version = EndpointDiscovery.versionOf(path, controller);
+                List<AuditedEndpoint> endpoints = byPath.computeIfAbsent(path, p -> new ArrayList<>());
+                if (methods.isEmpty()) {
+                    endpoints.add(AuditedEndpoint.of("ANY", path, version, handler));
+                }
+                for (RequestMethod method : methods) {
+                    endpoints.add(AuditedEndpoint.of(method.name(), path, version, handler));
+                }
+            }
+        }
+        RouteTable.Builder<AuditedEndpoint[]> table = RouteTable.builder();
+        byPath.forEach((path, endpoints) -> table.add(path, endpoints.toArray(AuditedEndpoint[]::new)));
+        return table.build();
+    }
+
+    private static AuditedEndpoint find(AuditedEndpoint[] endpoints, String httpMethod) {
+        if (endpoints != null) {
+            for (AuditedEndpoint endpoint : endpoints) {
+                if (endpoint.accepts(httpMethod)) {
+                    return endpoint;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String path(HttpServletRequest request) {
+        String pathInfo = request.getPathInfo();
+        return pathInfo == null ? request.getServletPath() : request.getServletPath() + pathInfo;
+    }
+}
@@ -0,0 +1,151 @@
+package pe.edu.vallegrande.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro de auditoría asíncrono.
+ * <p>
+ * Los hilos de petición solo publican en un {@link AuditRingBuffer} preasignado; un único hilo de fondo
+ * lo vacía por lotes y los escribe con {@link AuditLogWriter}, de modo que la E/S de disco nunca bloquea
+ * una petición. Con el buffer lleno los registros se descartan y se cuentan en {@value #DROPPED_METRIC}:
+ * el coste en la petición es siempre el mismo, haya o no retraso en disco.
+ */
+@Component
+public class AuditLog {
+
+    public static final String RECORDS_METRIC = "audit.records";
+    public static final String DROPPED_METRIC = "audit.dropped";
+    public static final String BACKLOG_METRIC = "audit.backlog";
+    public static final String WRITE_ERRORS_METRIC = "audit.write.errors";
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    /** Espera del consumidor cuando no hay registros: acota la latencia hasta disco sin girar en vacío. */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AuditRingBuffer ring;
+    private final AuditLogWriter writer;
+    private final int batchSize;
+    private final Counter writeErrors;
+    private final Thread consumer;
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public AuditLog(@Value("${app.audit.directory:logs/audit}") String directory,
+                    @Value("${app.audit.buffer-size:8192}") int bufferSize,
+                    @Value("${app.audit.batch-size:512}") int batchSize,
+                    @Value("${app.audit.max-file-size:10MB}") DataSize maxFileSize,
+                    @Value("${app.audit.max-files:5}") int maxFiles,
+                    MeterRegistry meterRegistry) {
+        this(new AuditRingBuffer(bufferSize),
+                new AuditLogWriter(Path.of(directory), maxFileSize.toBytes(), maxFiles), batchSize, meterRegistry);
+    }
+
+    AuditLog(AuditRingBuffer ring, AuditLogWriter writer, int batchSize, MeterRegistry meterRegistry) {
+        this.ring = ring;
+        this.writer = writer;
+        this.batchSize = batchSize;
+        FunctionCounter.builder(RECORDS_METRIC, writer, AuditLogWriter::written)
+                .description("Audit records written to disk")
+                .register(meterRegistry);
+        FunctionCounter.builder(DROPPED_METRIC, ring, AuditRingBuffer::dropped)
+                .description("Audit records dropped because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder(BACKLOG_METRIC, ring, AuditRingBuffer::backlog)
+                .description("Audit records waiting to be written")
+                .register(meterRegistry);
+        this.writeErrors = Counter.builder(WRITE_ERRORS_METRIC)
+                .description("Audit batches lost because of I/O errors")
+                .register(meterRegistry);
+        this.consumer = new Thread(this::consume, "audit-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Publica un registro sin bloquear.
+     *
+     * @return {@code false} si se descartó porque el buffer estaba lleno
+     */
+    boolean record(AuditedEndpoint endpoint, String client, int status, long timestampMillis, long durationNanos) {
+        return ring.publish(endpoint, client, status, timestampMillis, durationNanos);
+    }
+
+    long dropped() {
+        return ring.dropped();
+    }
+
+    long written() {
+        return writer.written();
+    }
+
+    /** Escribe lo pendiente y detiene el consumidor. */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void consume() {
+        while (running) {
+            if (drainBatch() == 0) {
+                flush();
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+        // Lo publicado antes de cerrar también llega al archivo
+        while (drainBatch() > 0) {
+            // vaciar
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            writeErrors.increment();
+            log.warn("Cannot close the audit log", e);
+        }
+    }
+
+    private int drainBatch() {
+        try {
+            return ring.drain(slot -> {
+                try {
+                    writer.append(slot);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, batchSize);
+        } catch (UncheckedIOException e) {
+            // El lote que no se pudo escribir se pierde y el consumidor sigue con el siguiente
+            writeErrors.increment();
+            log.warn("Cannot write audit records", e.getCause());
+            return 1;
+        }
+    }
+
+    private void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            writeErrors.increment();
+            log.warn("Cannot write audit records", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package pe.edu.vallegrande.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escribe los registros de auditoría como NDJSON en {@value #FILE_NAME}, rotando por tamaño a
+ * {@code audit.1.ndjson}, {@code audit.2.ndjson}, ... (el número más alto es el más antiguo).
+ * <p>
+ * Las líneas se acumulan en un buffer directo y llegan al {@link FileChannel} en una sola escritura por
+ * lote. No es thread-safe: solo lo usa el hilo consumidor de {@link AuditLog}.
+ */
+final class AuditLogWriter implements Closeable {
+
+    static final String FILE_NAME = "audit.ndjson";
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final StringBuilder line = new StringBuilder(256);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final LongAdder written = new LongAdder();
+
+    private FileChannel channel;
+    private long fileBytes;
+    /** Registros en el buffer que aún no han llegado al archivo. */
+    private int pending;
+
+    /**
+     * @param maxFiles archivos conservados, incluido el actual
+     */
+    AuditLogWriter(Path directory, long maxFileBytes, int maxFiles) {
+        if (maxFileBytes < 1 || maxFiles < 1) {
+            throw new IllegalArgumentException("Audit file size and count must be positive");
+        }
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Añade un registro al lote en curso; si no cabe, escribe antes el lote.
+     */
+    void append(AuditRingBuffer.Slot slot) throws IOException {
+        line.setLength(0);
+        line.append("{\"timestamp\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(slot.timestampMillis), line);
+        line.append("\",").append(slot.endpoint.jsonFields()).append(',');
+        appendField(line, "client", slot.client);
+        line.append(",\"status\":").append(slot.status)
+                .append(",\"durationMicros\":").append(slot.durationNanos / 1000)
+                .append("}\n");
+        if (!encode()) {
+            flush();
+            if (!encode()) {
+                throw new IOException("Audit record larger than the write buffer");
+            }
+        }
+        pending++;
+    }
+
+    /**
+     * Escribe el lote en curso, rotando antes si el archivo superaría el tamaño máximo.
+     */
+    void flush() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        try {
+            if (channel == null) {
+                open();
+            } else if (fileBytes > 0 && fileBytes + buffer.position() > maxFileBytes) {
+                rotate();
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                fileBytes += channel.write(buffer);
+            }
+            written.add(pending);
+        } finally {
+            // Si la escritura falla el lote se pierde: reintentarlo repetiría el error en cada registro
+            buffer.clear();
+            pending = 0;
+        }
+    }
+
+    /** Registros que ya llegaron al archivo; se puede leer desde cualquier hilo. */
+    long written() {
+        return written.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    /** Codifica la línea en el buffer; si no cabe, deja el buffer como estaba. */
+    private boolean encode() {
+        int mark = buffer.position();
+        encoder.reset();
+        CharBuffer chars = CharBuffer.wrap(line);
+        CoderResult result = encoder.encode(chars, buffer, true);
+        if (result.isOverflow() || encoder.flush(buffer).isOverflow()) {
+            buffer.position(mark);
+            return false;
+        }
+        return true;
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        channel = FileChannel.open(directory.resolve(FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        channel = null;
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            Path source = rotated(i);
+            if (Files.exists(source)) {
+                Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Path current = directory.resolve(FILE_NAME);
+        if (maxFiles > 1) {
+            Files.move(current, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(current);
+        }
+        open();
+    }
+
+    private Path rotated(int index) {
+        return directory.resolve("audit." + index + ".ndjson");
+    }
+
+    static StringBuilder appendField(StringBuilder out, String name, String value) {
+        out.append('"').append(name).append("\":");
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"');
+    }
+}
@@ -0,0 +1,126 @@
+package pe.edu.vallegrande.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Buffer circular de registros de auditoría con varios productores y un único consumidor, al estilo
+ * del Disruptor.
+ * <p>
+ * Las ranuras se crean al construir el buffer y se reutilizan: publicar un registro es un CAS sobre la
+ * secuencia de reserva, copiar unos campos en la ranura y marcarla como publicada. No hay locks ni se
+ * crean objetos. Si el consumidor va una vuelta completa por detrás, el registro se descarta y se cuenta
+ * en {@link #dropped()} en lugar de hacer esperar al hilo de la petición.
+ */
+final class AuditRingBuffer {
+
+    private final Slot[] slots;
+    private final int mask;
+    /** Secuencia publicada en cada ranura; el consumidor la compara con la que espera leer. */
+    private final AtomicLongArray published;
+    /** Siguiente secuencia a reservar por los productores. */
+    private final AtomicLong claimed = new AtomicLong();
+    /** Siguiente secuencia a leer por el consumidor; las anteriores ya se pueden sobrescribir. */
+    private final AtomicLong consumed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Audit buffer size must be a power of two: " + capacity);
+        }
+        this.slots = new Slot[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Publica un registro, o lo descarta si el buffer está lleno.
+     *
+     * @return {@code false} si se descartó
+     */
+    boolean publish(AuditedEndpoint endpoint, String client, int status, long timestampMillis, long durationNanos) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        int index = (int) sequence & mask;
+        Slot slot = slots[index];
+        slot.endpoint = endpoint;
+        slot.client = client;
+        slot.status = status;
+        slot.timestampMillis = timestampMillis;
+        slot.durationNanos = durationNanos;
+        // Escritura con semántica release: el consumidor ve los campos de la ranura al ver la secuencia
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * Entrega al consumidor hasta {@code maxBatch} registros publicados, en orden de reserva. Se detiene en
+     * la primera ranura reservada pero aún no publicada. Solo debe llamarlo un hilo.
+     *
+     * @return registros entregados
+     */
+    int drain(Consumer<? super Slot> consumer, int maxBatch) {
+        long first = consumed.get();
+        long next = first;
+        try {
+            while (next - first < maxBatch) {
+                int index = (int) next & mask;
+                if (published.get(index) != next) {
+                    break;
+                }
+                Slot slot = slots[index];
+                try {
+                    consumer.accept(slot);
+                } finally {
+                    // Aunque el consumidor falle, la ranura se da por leída y no se vuelve a entregar
+                    slot.endpoint = null;
+                    slot.client = null;
+                    next++;
+                }
+            }
+        } finally {
+            if (next != first) {
+                // Libera las ranuras para los productores
+                consumed.lazySet(next);
+            }
+        }
+        return (int) (next - first);
+    }
+
+    /** Registros reservados que el consumidor aún no ha leído. */
+    long backlog() {
+        return Math.max(0, claimed.get() - consumed.get());
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Ranura reutilizable. El consumidor solo debe leerla dentro de {@link #drain}.
+     */
+    static final class Slot {
+
+        AuditedEndpoint endpoint;
+        String client;
+        int status;
+        long timestampMillis;
+        long durationNanos;
+    }
+}
@@ -0,0 +1,17 @@
+package pe.edu.vallegrande.audit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un handler cuyas llamadas quedan en el registro de auditoría ({@link AuditFilter}), incluidas las
+ * que se rechazan antes de llegar al controlador (410 de versiones retiradas, 429/503 del limitador).
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Audited {
+}
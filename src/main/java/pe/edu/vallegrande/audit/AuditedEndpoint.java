@@ -0,0 +1,23 @@
+package pe.edu.vallegrande.audit;
+
+/**
+ * Endpoint auditado, resuelto una sola vez al arrancar.
+ *
+ * @param jsonFields campos constantes de la línea NDJSON ya serializados, sin llaves
+ */
+record AuditedEndpoint(String method, String path, String version, String handler, String jsonFields) {
+
+    static AuditedEndpoint of(String method, String path, String version, String handler) {
+        StringBuilder fields = new StringBuilder(96);
+        AuditLogWriter.appendField(fields, "method", method).append(',');
+        AuditLogWriter.appendField(fields, "endpoint", path).append(',');
+        AuditLogWriter.appendField(fields, "version", version).append(',');
+        AuditLogWriter.appendField(fields, "handler", handler);
+        return new AuditedEndpoint(method, path, version, handler, fields.toString());
+    }
+
+    /** {@code ANY} acepta cualquier método, como en el inventario. */
+    boolean accepts(String httpMethod) {
+        return "ANY".equals(method) || method.equals(httpMethod);
+    }
+}
@@ -5,6 +5,9 @@ import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,10 +16,36 @@ import java.util.List;
 /**
  * Configuración de OpenAPI/Swagger para documentación completa de la API
  * Solución para API9:2023 - Proper API Documentation
+ * Los beans de springdoc (y el de este modelo) se crean de forma diferida: el documento solo se
+ * genera con la primera petición a /api-docs o Swagger UI, no durante el arranque.
  */
 @Configuration
 public class OpenApiConfig {
 
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    public static BeanFactoryPostProcessor lazySpringdocBeans() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isOpenApiBean(definition)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isOpenApiBean(BeanDefinition definition) {
+        String className = definition.getBeanClassName();
+        if (className == null && definition instanceof AnnotatedBeanDefinition annotated
+                && annotated.getFactoryMethodMetadata() != null) {
+            className = annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return className != null
+                && (className.startsWith(SPRINGDOC_PACKAGE) || className.equals(OpenApiConfig.class.getName()));
+    }
+
     @Bean
     public OpenAPI customOpenAPI() {
         return new OpenAPI()
@@ -0,0 +1,48 @@
+package pe.edu.vallegrande.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import pe.edu.vallegrande.repository.UserJournal;
+import pe.edu.vallegrande.repository.UserStorage;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Selección del almacenamiento de usuarios según app.users.storage y de su persistencia
+ * según app.users.wal.*
+ */
+@Configuration
+public class UserStorageConfig {
+
+    @Bean
+    public UserStorage userStorage(@Value("${app.users.storage:heap}") String mode) {
+        return UserStorage.create(mode);
+    }
+
+    /** Spring cierra el journal al parar (escribe el snapshot final). */
+    @Bean
+    public UserJournal userJournal(@Value("${app.users.wal.directory:}") String directory,
+                                   @Value("${app.users.wal.snapshot-interval:5m}") Duration snapshotInterval) {
+        return directory.isBlank() ? UserJournal.NONE : UserJournal.fileBacked(Path.of(directory), snapshotInterval);
+    }
+
+    /**
+     * Pool de las altas de la API v2 cuando el journal bloquea: {@code save} espera al fsync y no debe
+     * ocupar el pool de BCrypt, dimensionado a la CPU. No es candidato por defecto, así que no desactiva
+     * applicationTaskExecutor y se inyecta por nombre; Spring lo cierra al parar.
+     */
+    @Bean(defaultCandidate = false)
+    public ThreadPoolTaskExecutor userWriteExecutor(@Value("${app.users.wal.write-threads:16}") int threads,
+                                                    @Value("${app.users.wal.write-queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("user-write-");
+        executor.setDaemon(true);
+        return executor;
+    }
+}
@@ -0,0 +1,65 @@
+package pe.edu.vallegrande.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import pe.edu.vallegrande.metrics.EndpointTrafficInterceptor;
+import pe.edu.vallegrande.ratelimit.RateLimitInterceptor;
+
+/**
+ * Configuración de Spring MVC: interceptores transversales de la API y ejecutor de las respuestas
+ * en streaming
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final EndpointTrafficInterceptor endpointTrafficInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final ThreadPoolTaskExecutor streamingExecutor;
+
+    public WebConfig(EndpointTrafficInterceptor endpointTrafficInterceptor,
+                     RateLimitInterceptor rateLimitInterceptor,
+                     @Value("${app.streaming.threads:32}") int streamingThreads,
+                     @Value("${app.streaming.queue-capacity:64}") int streamingQueueCapacity) {
+        this.endpointTrafficInterceptor = endpointTrafficInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.streamingExecutor = streamingExecutor(streamingThreads, streamingQueueCapacity);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Primero el limitador: las peticiones rechazadas no llegan a contarse como tráfico atendido
+        registry.addInterceptor(rateLimitInterceptor);
+        registry.addInterceptor(endpointTrafficInterceptor);
+    }
+
+    /**
+     * Los StreamingResponseBody de v2 ocupan un hilo de este pool durante todo el envío y el NDJSON de v3
+     * escribe en él cada usuario. Sin esto usarían applicationTaskExecutor (8 hilos compartidos con el
+     * resto de tareas asíncronas). El límite de duración es spring.mvc.async.request-timeout.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+    }
+
+    @PreDestroy
+    public void close() {
+        streamingExecutor.shutdown();
+    }
+
+    private static ThreadPoolTaskExecutor streamingExecutor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-stream-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,81 +1,123 @@
 package pe.edu.vallegrande.controller.secure;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import pe.edu.vallegrande.inventory.ApiInventory;
+import pe.edu.vallegrande.inventory.DeprecatedEndpoints;
+import pe.edu.vallegrande.inventory.InventoryDocument;
+import pe.edu.vallegrande.inventory.InventoryService;
+import pe.edu.vallegrande.metrics.TrafficRegistry;
+import pe.edu.vallegrande.metrics.VersionTraffic;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * SECURE: API Inventory Management
- * Proporciona información sobre las APIs disponibles y su estado
+ * Proporciona información sobre las APIs disponibles y su estado.
+ * Las respuestas están precalculadas y se validan con ETag para que los sondeos
+ * frecuentes del gateway no reconstruyan ni reserialicen el inventario. Si el cliente acepta gzip
+ * se envía la variante ya comprimida al publicar, sin comprimir en cada petición.
  */
 @RestController
 @RequestMapping("/api/v2/inventory")
 @Tag(name = "API Inventory", description = "API inventory and version management")
 public class ApiInventoryController {
 
+    private static final String CACHE_CONTROL = "public, max-age=60, must-revalidate";
+
+    private final InventoryService inventoryService;
+    private final TrafficRegistry trafficRegistry;
+
+    public ApiInventoryController(InventoryService inventoryService, TrafficRegistry trafficRegistry) {
+        this.inventoryService = inventoryService;
+        this.trafficRegistry = trafficRegistry;
+    }
+
     @Operation(
         summary = "Get API inventory",
-        description = "Returns information about all available API versions and their status"
+        description = "Returns information about all available API versions and their status. " +
+                      "Supports conditional requests with If-None-Match and gzip via Accept-Encoding."
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "API inventory retrieved successfully")
+        @ApiResponse(responseCode = "200", description = "API inventory retrieved successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ApiInventory.class))),
+        @ApiResponse(responseCode = "304", description = "Inventory not modified since the given ETag")
     })
-    @GetMapping
-    public ResponseEntity<Map<String, Object>> getApiInventory() {
-        Map<String, Object> inventory = new HashMap<>();
-        
-        // Información de versiones
-        Map<String, Object> versions = new HashMap<>();
-        
-        Map<String, Object> v1Info = new HashMap<>();
-        v1Info.put("status", "DEPRECATED");
-        v1Info.put("deprecationDate", "2024-01-01");
-        v1Info.put("sunsetDate", "2024-06-01");
-        v1Info.put("description", "Legacy version - use v2 instead");
-        v1Info.put("securityIssues", "Exposes sensitive data");
-        versions.put("v1", v1Info);
-        
-        Map<String, Object> v2Info = new HashMap<>();
-        v2Info.put("status", "CURRENT");
-        v2Info.put("releaseDate", "2024-01-15");
-        v2Info.put("description", "Current stable version");
-        v2Info.put("features", "Secure DTOs, proper documentation, versioned endpoints");
-        versions.put("v2", v2Info);
-        
-        inventory.put("versions", versions);
-        inventory.put("currentVersion", "v2");
-        inventory.put("documentationUrl", "/swagger-ui.html");
-        inventory.put("lastUpdated", "2024-02-01");
-        
-        return ResponseEntity.ok(inventory);
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getApiInventory(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(inventoryService.getInventoryDocument(), ifNoneMatch, acceptEncoding);
     }
 
     @Operation(
         summary = "Get deprecated endpoints",
-        description = "Returns list of deprecated endpoints that should not be used"
+        description = "Returns list of deprecated endpoints that should not be used. " +
+                      "Supports conditional requests with If-None-Match and gzip via Accept-Encoding."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Deprecated endpoints retrieved successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = DeprecatedEndpoints.class))),
+        @ApiResponse(responseCode = "304", description = "List not modified since the given ETag")
+    })
+    @GetMapping(value = "/deprecated", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getDeprecatedEndpoints(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(inventoryService.getDeprecatedDocument(), ifNoneMatch, acceptEncoding);
+    }
+
+    @Operation(
+        summary = "Get traffic per API version",
+        description = "Returns live traffic for each inventory version: total calls, calls during the last " +
+                      "complete minute, last seen time and estimated distinct clients, broken down by endpoint. " +
+                      "Kept apart from the inventory document so that document stays cacheable."
     )
-    @GetMapping("/deprecated")
-    public ResponseEntity<Map<String, Object>> getDeprecatedEndpoints() {
-        Map<String, Object> deprecated = new HashMap<>();
-        
-        deprecated.put("endpoints", new String[]{
-            "/api/users (v1) - Use /api/v2/users instead",
-            "/legacy/old-endpoint - No replacement, functionality removed",
-            "/legacy/test - Test endpoint, should not be in production",
-            "/legacy/internal/config - Internal endpoint, not for public use"
-        });
-        
-        deprecated.put("removalDate", "2024-06-01");
-        deprecated.put("migrationGuide", "/docs/migration-guide");
-        
-        return ResponseEntity.ok(deprecated);
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Traffic report retrieved successfully")
+    })
+    @GetMapping("/traffic")
+    public ResponseEntity<Map<String, VersionTraffic>> getTraffic() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(trafficRegistry.report());
+    }
+
+    static ResponseEntity<byte[]> serve(InventoryDocument document, String ifNoneMatch,
+                                        String acceptEncoding) {
+        boolean gzip = document.gzipBody() != null && InventoryDocument.acceptsGzip(acceptEncoding);
+        String etag = gzip ? document.gzipEtag() : document.etag();
+        if (document.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            // Con Content-Encoding presente, Tomcat no vuelve a comprimir la respuesta
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(document.gzipBody());
+        }
+        return response.body(document.body());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package pe.edu.vallegrande.controller.secure;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pe.edu.vallegrande.fleet.FleetAggregator;
+import pe.edu.vallegrande.fleet.FleetInventory;
+import pe.edu.vallegrande.fleet.InventoryDelta;
+import pe.edu.vallegrande.fleet.SyncAck;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * SECURE: Inventario de la flota
+ * Solo existe en la instancia agregadora (app.fleet.aggregator.enabled=true). Las instancias envían sus
+ * deltas a /sync y el inventario agregado se sirve ya serializado, con ETag y gzip como /api/v2/inventory.
+ */
+@RestController
+@RequestMapping("/api/v2/fleet")
+@ConditionalOnProperty(name = "app.fleet.aggregator.enabled", havingValue = "true")
+@Tag(name = "Fleet Inventory", description = "API inventory aggregated across every running instance")
+public class FleetInventoryController {
+
+    private final FleetAggregator fleetAggregator;
+    private final byte[] token;
+
+    public FleetInventoryController(FleetAggregator fleetAggregator, @Value("${app.fleet.token:}") String token) {
+        this.fleetAggregator = fleetAggregator;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Operation(
+        summary = "Get fleet inventory",
+        description = "Returns the inventory merged from every reporting instance: which instances still expose " +
+                      "each version, its lifecycle status and the traffic and 410 responses it gets across the " +
+                      "fleet. Supports conditional requests with If-None-Match and gzip via Accept-Encoding."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fleet inventory retrieved successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = FleetInventory.class))),
+        @ApiResponse(responseCode = "304", description = "Fleet inventory not modified since the given ETag")
+    })
+    @GetMapping(value = "/inventory", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getFleetInventory(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return ApiInventoryController.serve(fleetAggregator.getDocument(), ifNoneMatch, acceptEncoding);
+    }
+
+    @Operation(
+        summary = "Sync instance inventory",
+        description = "Applies the changes of one instance since the last acknowledged revision. " +
+                      "Answers 409 when the revision or the state hash does not match; the instance must then " +
+                      "send its full state with baseRevision 0."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Delta applied"),
+        @ApiResponse(responseCode = "400", description = "Incomplete delta or too many endpoints for one instance"),
+        @ApiResponse(responseCode = "401", description = "Missing or wrong fleet token"),
+        @ApiResponse(responseCode = "409", description = "Full snapshot required"),
+        @ApiResponse(responseCode = "503", description = "The aggregator already tracks the maximum number of instances")
+    })
+    @PostMapping(value = "/sync", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SyncAck> sync(
+            @RequestHeader(value = FleetAggregator.TOKEN_HEADER, required = false) String requestToken,
+            @RequestBody InventoryDelta delta) {
+        if (token.length > 0 && (requestToken == null
+                || !MessageDigest.isEqual(token, requestToken.getBytes(StandardCharsets.UTF_8)))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        SyncAck ack;
+        try {
+            ack = fleetAggregator.apply(delta);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.status(ack.applied() ? HttpStatus.OK : HttpStatus.CONFLICT).body(ack);
+    }
+}
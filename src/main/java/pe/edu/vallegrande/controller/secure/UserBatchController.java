@@ -0,0 +1,62 @@
+package pe.edu.vallegrande.controller.secure;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pe.edu.vallegrande.dto.BatchItemResultDto;
+import pe.edu.vallegrande.dto.UserCreateDto;
+import pe.edu.vallegrande.service.UserBatchService;
+
+import java.io.IOException;
+
+/**
+ * SECURE VERSION - API v2
+ * Creación masiva de usuarios para procesos de sincronización.
+ */
+@RestController
+@RequestMapping("/api/v2")
+@Tag(name = "Users V2", description = "User management API - Version 2 (Current)")
+public class UserBatchController {
+
+    private final UserBatchService userBatchService;
+
+    public UserBatchController(UserBatchService userBatchService) {
+        this.userBatchService = userBatchService;
+    }
+
+    @Operation(
+        summary = "Create users in bulk",
+        description = "Creates many users in a single request. Accepts a JSON array or an NDJSON stream " +
+                      "(Content-Type: application/x-ndjson) of user objects. The payload is parsed incrementally " +
+                      "and one result per item is streamed back in the same format. Passwords are never returned.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true, content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                array = @ArraySchema(schema = @Schema(implementation = UserCreateDto.class))),
+            @Content(mediaType = UserControllerV2.NDJSON,
+                schema = @Schema(implementation = UserCreateDto.class))
+        })
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed; see the status of each item",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                array = @ArraySchema(schema = @Schema(implementation = BatchItemResultDto.class))))
+    })
+    @PostMapping(value = "/users:batch", consumes = {MediaType.APPLICATION_JSON_VALUE, UserControllerV2.NDJSON})
+    public void createUsersBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean ndjson = request.getContentType() != null
+                && MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(UserControllerV2.NDJSON));
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(ndjson ? UserControllerV2.NDJSON : MediaType.APPLICATION_JSON_VALUE);
+        userBatchService.importUsers(request.getInputStream(), response.getOutputStream(), ndjson);
+    }
+}
@@ -1,20 +1,36 @@
 package pe.edu.vallegrande.controller.secure;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import pe.edu.vallegrande.dto.UserCreateDto;
 import pe.edu.vallegrande.dto.UserResponseDto;
 import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+import pe.edu.vallegrande.service.PasswordHashingService;
+import pe.edu.vallegrande.service.UserLookupService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 /**
  * SECURE VERSION - API v2
@@ -29,28 +45,156 @@ import java.util.stream.Collectors;
 @Tag(name = "Users V2", description = "User management API - Version 2 (Current)")
 public class UserControllerV2 {
 
-    private List<User> users = new ArrayList<>();
+    static final String NDJSON = "application/x-ndjson";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String RETRY_AFTER_SECONDS = "1";
+    static final String MATCH_SUBSTRING = "substring";
+    static final String MATCH_PREFIX = "prefix";
+    static final int DEFAULT_SEARCH_RESULTS = 20;
+    static final int MAX_SEARCH_RESULTS = 100;
 
-    public UserControllerV2() {
-        // Datos de prueba
-        users.add(new User(1L, "admin", "admin@example.com", "admin123"));
-        users.add(new User(2L, "user1", "user1@example.com", "password123"));
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final PasswordHashingService passwordHashingService;
+    private final UserLookupService userLookupService;
+    private final Executor writeExecutor;
+
+    public UserControllerV2(UserRepository userRepository, ObjectMapper objectMapper,
+                            PasswordHashingService passwordHashingService, UserLookupService userLookupService,
+                            @Qualifier("userWriteExecutor") Executor writeExecutor) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.passwordHashingService = passwordHashingService;
+        this.userLookupService = userLookupService;
+        this.writeExecutor = writeExecutor;
     }
 
     @Operation(
         summary = "Get all users",
-        description = "Retrieves a list of all users. Passwords are not included in the response for security."
+        description = "Retrieves a page of users ordered by ID using keyset pagination. " +
+                      "Passwords are not included in the response for security. " +
+                      "When more users are available, the next cursor is returned in the " +
+                      "X-Next-Cursor header and as a Link header with rel=\"next\"."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved users"),
+        @ApiResponse(responseCode = "400", description = "Invalid page limit or cursor"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping
-    public ResponseEntity<List<UserResponseDto>> getAllUsers() {
-        List<UserResponseDto> userDtos = users.stream()
-                .map(user -> new UserResponseDto(user.getId(), user.getUsername(), user.getEmail()))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userDtos);
+    public ResponseEntity<List<UserResponseDto>> getAllUsers(
+            @Parameter(description = "Cursor: return users with an ID greater than this value")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of users per page (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || !isValidCursor(after)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        List<UserResponseDto> userDtos = new ArrayList<>(pageSize);
+        long lastId = userRepository.scan(after, pageSize, user -> userDtos.add(UserResponseDto.from(user)));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (userDtos.size() == pageSize && userRepository.hasIdsAfter(lastId)) {
+            String nextCursor = Long.toString(lastId);
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, nextCursor)
+                    .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(userDtos);
+    }
+
+    @Operation(
+        summary = "Stream all users as NDJSON",
+        description = "Streams users ordered by ID as newline-delimited JSON, writing one user at a time " +
+                      "without building the full list in memory. Select it with Accept: application/x-ndjson."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User stream started"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit or cursor"),
+        @ApiResponse(responseCode = "503", description = "Too many concurrent streams, retry later")
+    })
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(
+            @Parameter(description = "Cursor: stream users with an ID greater than this value")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of users to stream (unlimited by default)")
+            @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int limit) {
+        if (limit < 1 || !isValidCursor(after)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                userRepository.scan(after, limit, user -> {
+                    try {
+                        generator.writeObject(UserResponseDto.from(user));
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @Operation(
+        summary = "Search users",
+        description = "Returns users whose username or email contains the query (case-insensitive), ordered by ID. " +
+                      "With match=prefix only values starting with the query match; queries shorter than " +
+                      "3 characters always match by prefix. Results are paginated with the same cursor as " +
+                      "the user list (X-Next-Cursor and Link rel=\"next\")."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching users retrieved"),
+        @ApiResponse(responseCode = "400", description = "Empty query, invalid match mode, limit or cursor")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<UserResponseDto>> searchUsers(
+            @Parameter(description = "Text to search in username and email", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Match mode: substring (default) or prefix")
+            @RequestParam(defaultValue = MATCH_SUBSTRING) String match,
+            @Parameter(description = "Cursor: return users with an ID greater than this value")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of users to return (1-" + MAX_SEARCH_RESULTS + ")")
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_RESULTS) int limit) {
+        boolean prefixOnly = MATCH_PREFIX.equals(match);
+        if (q.isBlank() || limit < 1 || !isValidCursor(after) || !(prefixOnly || MATCH_SUBSTRING.equals(match))) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.min(limit, MAX_SEARCH_RESULTS);
+        // Se pide uno más para saber si hay otra página sin una segunda búsqueda
+        List<UserResponseDto> userDtos = new ArrayList<>(pageSize);
+        boolean[] more = new boolean[1];
+        userRepository.search(q, prefixOnly, after, pageSize + 1, user -> {
+            if (userDtos.size() < pageSize) {
+                userDtos.add(UserResponseDto.from(user));
+            } else {
+                more[0] = true;
+            }
+        });
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (more[0]) {
+            String nextCursor = Long.toString(userDtos.get(pageSize - 1).getId());
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, nextCursor)
+                    .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(userDtos);
     }
 
     @Operation(
@@ -65,38 +209,72 @@ public class UserControllerV2 {
     public ResponseEntity<UserResponseDto> getUserById(
             @Parameter(description = "User ID", required = true) @PathVariable Long id) {
         
-        User user = users.stream()
-                .filter(u -> u.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        // Cacheado, incluidos los 404
+        UserResponseDto userDto = userLookupService.findById(id).orElse(null);
         
-        if (user == null) {
+        if (userDto == null) {
             return ResponseEntity.notFound().build();
         }
         
-        UserResponseDto userDto = new UserResponseDto(user.getId(), user.getUsername(), user.getEmail());
         return ResponseEntity.ok(userDto);
     }
 
     @Operation(
         summary = "Create new user",
-        description = "Creates a new user. The password will be securely stored and not returned in the response."
+        description = "Creates a new user. The password is hashed with BCrypt and never returned in the response. " +
+                      "Hashing runs asynchronously on a bounded pool; when it is saturated the request is " +
+                      "rejected with 503 and a Retry-After header."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "User created successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid input data")
+        @ApiResponse(responseCode = "400", description = "Invalid input data or password longer than 72 bytes"),
+        @ApiResponse(responseCode = "503", description = "Password hashing capacity exhausted, retry later")
     })
     @PostMapping
-    public ResponseEntity<UserResponseDto> createUser(@RequestBody UserCreateDto userCreateDto) {
-        User user = new User();
-        user.setId((long) (users.size() + 1));
-        user.setUsername(userCreateDto.getUsername());
-        user.setEmail(userCreateDto.getEmail());
-        user.setPassword(userCreateDto.getPassword()); // En producción, esto debería ser hasheado
-        
-        users.add(user);
-        
-        UserResponseDto responseDto = new UserResponseDto(user.getId(), user.getUsername(), user.getEmail());
-        return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
+    public CompletableFuture<ResponseEntity<UserResponseDto>> createUser(@RequestBody UserCreateDto userCreateDto) {
+        if (userCreateDto.getPassword() == null || userCreateDto.getPassword().isBlank()
+                || PasswordHashingService.isTooLong(userCreateDto.getPassword())) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        Function<String, ResponseEntity<UserResponseDto>> create = hash -> {
+            User user = new User();
+            user.setUsername(userCreateDto.getUsername());
+            user.setEmail(userCreateDto.getEmail());
+            user.setPassword(hash);
+
+            userRepository.save(user);
+            userLookupService.invalidate(user);
+
+            UserResponseDto responseDto = UserResponseDto.from(user);
+            return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
+        };
+        // El hash se calcula fuera del hilo de la petición; si save espera al fsync, la escritura pasa
+        // al pool de escrituras para no ocupar el de BCrypt, y sin WAL sigue en el hilo del hash
+        CompletableFuture<String> hashed = passwordHashingService.hash(userCreateDto.getPassword());
+        return (userRepository.writesBlock() ? hashed.thenApplyAsync(create, writeExecutor) : hashed.thenApply(create))
+                .exceptionally(UserControllerV2::hashingUnavailable);
+    }
+
+    /** Cursor {@code after} aceptado por el listado, el NDJSON y la búsqueda: fuera de rango es un 400. */
+    static boolean isValidCursor(long after) {
+        return after >= 0 && after < UserRepository.MAX_ID;
+    }
+
+    /** El pool de streaming (app.streaming.*) no admite más envíos: la petición se puede reintentar. */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> streamingUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+    }
+
+    private static ResponseEntity<UserResponseDto> hashingUnavailable(Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        throw error instanceof CompletionException completion ? completion : new CompletionException(error);
     }
-}
\ No newline at end of file
+}
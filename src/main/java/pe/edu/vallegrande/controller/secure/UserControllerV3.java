@@ -0,0 +1,206 @@
+package pe.edu.vallegrande.controller.secure;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import pe.edu.vallegrande.dto.UserCreateDto;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.ReactiveUserRepository;
+import pe.edu.vallegrande.service.PasswordHashingService;
+import pe.edu.vallegrande.service.UserLookupService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static pe.edu.vallegrande.controller.secure.UserControllerV2.*;
+
+/**
+ * SECURE VERSION - API v3 (reactiva)
+ * Mismo contrato que v2, con handlers que devuelven Mono/Flux sobre {@link ReactiveUserRepository}.
+ * Los handlers devuelven el hilo de la petición a Tomcat y Spring MVC completa la respuesta de forma
+ * asíncrona, pero las escrituras del NDJSON se hacen en el pool de streaming de WebConfig
+ * (app.streaming.*): un cliente lento ocupa un hilo de ese pool mientras se le escribe y el envío se
+ * corta pasado spring.mvc.async.request-timeout.
+ * En NDJSON cada usuario se serializa cuando el anterior ya se escribió en el socket y solo entonces
+ * se pide el siguiente al repositorio, así que un cliente lento frena la lectura en lugar de acumular
+ * la respuesta en memoria.
+ */
+@RestController
+@RequestMapping("/api/v3/users")
+@Tag(name = "Users V3", description = "Reactive user management API - Version 3 (streaming with backpressure)")
+public class UserControllerV3 {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final UserLookupService userLookupService;
+
+    public UserControllerV3(ReactiveUserRepository userRepository, PasswordHashingService passwordHashingService,
+                            UserLookupService userLookupService) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.userLookupService = userLookupService;
+    }
+
+    @Operation(
+        summary = "Get all users",
+        description = "Retrieves a page of users ordered by ID using keyset pagination, like v2. " +
+                      "When more users are available, the next cursor is returned in the " +
+                      "X-Next-Cursor header and as a Link header with rel=\"next\"."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved users"),
+        @ApiResponse(responseCode = "400", description = "Invalid page limit or cursor")
+    })
+    @GetMapping
+    public Mono<ResponseEntity<List<UserResponseDto>>> getAllUsers(
+            @Parameter(description = "Cursor: return users with an ID greater than this value")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of users per page (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || !isValidCursor(after)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        // El builder se toma aquí: el resto de la cadena puede ejecutarse fuera del hilo de la petición
+        UriComponentsBuilder current = ServletUriComponentsBuilder.fromCurrentRequest();
+        return page(userRepository.scan(after, pageSize + 1), pageSize, current);
+    }
+
+    @Operation(
+        summary = "Stream all users as NDJSON",
+        description = "Streams users ordered by ID as newline-delimited JSON. Users are read from the store " +
+                      "only as fast as the client consumes them. Select it with Accept: application/x-ndjson."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User stream started"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
+    })
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<Flux<UserResponseDto>> streamAllUsers(
+            @Parameter(description = "Cursor: stream users with an ID greater than this value")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of users to stream (unlimited by default)")
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long limit) {
+        if (limit < 1 || !isValidCursor(after)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userRepository.scan(after, limit).map(UserResponseDto::from));
+    }
+
+    @Operation(
+        summary = "Search users",
+        description = "Same as v2: users whose username or email contains the query (case-insensitive), " +
+                      "or starts with it with match=prefix, ordered by ID and paginated with X-Next-Cursor."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching users retrieved"),
+        @ApiResponse(responseCode = "400", description = "Empty query, invalid match mode, limit or cursor")
+    })
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<UserResponseDto>>> searchUsers(
+            @Parameter(description = "Text to search in username and email", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Match mode: substring (default) or prefix")
+            @RequestParam(defaultValue = MATCH_SUBSTRING) String match,
+            @Parameter(description = "Cursor: return users with an ID greater than this value")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of users to return (1-" + MAX_SEARCH_RESULTS + ")")
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_RESULTS) int limit) {
+        boolean prefixOnly = MATCH_PREFIX.equals(match);
+        if (q.isBlank() || limit < 1 || !isValidCursor(after) || !(prefixOnly || MATCH_SUBSTRING.equals(match))) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        int pageSize = Math.min(limit, MAX_SEARCH_RESULTS);
+        UriComponentsBuilder current = ServletUriComponentsBuilder.fromCurrentRequest();
+        return page(userRepository.search(q, prefixOnly, after, pageSize + 1), pageSize, current);
+    }
+
+    @Operation(
+        summary = "Get user by ID",
+        description = "Retrieves a specific user by their ID. Password is not included for security."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User found"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserResponseDto>> getUserById(
+            @Parameter(description = "User ID", required = true) @PathVariable Long id) {
+        // Misma caché que v2, incluidos los 404
+        return Mono.fromSupplier(() -> userLookupService.findById(id).orElse(null))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+        summary = "Create new user",
+        description = "Creates a new user. The password is hashed with BCrypt on a bounded pool and never " +
+                      "returned; when the pool is saturated the request is rejected with 503 and Retry-After."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "User created successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data or password longer than 72 bytes"),
+        @ApiResponse(responseCode = "503", description = "Password hashing capacity exhausted, retry later")
+    })
+    @PostMapping
+    public Mono<ResponseEntity<UserResponseDto>> createUser(@RequestBody UserCreateDto userCreateDto) {
+        if (userCreateDto.getPassword() == null || userCreateDto.getPassword().isBlank()
+                || PasswordHashingService.isTooLong(userCreateDto.getPassword())) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromFuture(() -> passwordHashingService.hash(userCreateDto.getPassword()))
+                .map(hash -> {
+                    User user = new User();
+                    user.setUsername(userCreateDto.getUsername());
+                    user.setEmail(userCreateDto.getEmail());
+                    user.setPassword(hash);
+                    return user;
+                })
+                .flatMap(userRepository::save)
+                .doOnNext(userLookupService::invalidate)
+                .map(user -> ResponseEntity.status(HttpStatus.CREATED).body(UserResponseDto.from(user)))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(hashingUnavailable()));
+    }
+
+    private static ResponseEntity<UserResponseDto> hashingUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+    }
+
+    /**
+     * Convierte un recorrido de {@code pageSize + 1} usuarios en una página: el usuario de más solo
+     * indica que hay otra página.
+     */
+    private static Mono<ResponseEntity<List<UserResponseDto>>> page(Flux<User> users, int pageSize,
+                                                                     UriComponentsBuilder current) {
+        return users.map(UserResponseDto::from)
+                .collectList()
+                .map(userDtos -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (userDtos.size() <= pageSize) {
+                        return response.body(userDtos);
+                    }
+                    List<UserResponseDto> pageDtos = userDtos.subList(0, pageSize);
+                    String nextCursor = Long.toString(pageDtos.get(pageSize - 1).getId());
+                    String nextLink = current
+                            .replaceQueryParam("after", nextCursor)
+                            .replaceQueryParam("limit", pageSize)
+                            .toUriString();
+                    return response.header(NEXT_CURSOR_HEADER, nextCursor)
+                            .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"")
+                            .body(pageDtos);
+                });
+    }
+}
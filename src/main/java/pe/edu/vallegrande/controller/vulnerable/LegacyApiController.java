@@ -1,6 +1,7 @@
 package pe.edu.vallegrande.controller.vulnerable;
 
 import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.audit.Audited;
 
 /**
  * VULNERABLE: API Legacy sin inventario adecuado
@@ -17,12 +18,14 @@ public class LegacyApiController {
     }
 
     // Endpoint de prueba que se olvidó remover
+    @Audited
     @GetMapping("/test")
     public String testEndpoint() {
         return "Test endpoint - should not be in production";
     }
 
     // Endpoint interno expuesto por error
+    @Audited
     @GetMapping("/internal/config")
     public String getInternalConfig() {
         return "Internal config: database=prod, debug=true";
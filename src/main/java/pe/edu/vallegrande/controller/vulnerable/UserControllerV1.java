@@ -1,9 +1,11 @@
 package pe.edu.vallegrande.controller.vulnerable;
 
 import org.springframework.web.bind.annotation.*;
+import pe.edu.vallegrande.audit.Audited;
 import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+import pe.edu.vallegrande.service.UserLookupService;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -18,41 +20,40 @@ import java.util.List;
 @RequestMapping("/api/users") // Sin versionado explícito
 public class UserControllerV1 {
 
-    private List<User> users = new ArrayList<>();
+    private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
 
-    public UserControllerV1() {
-        // Datos de prueba
-        users.add(new User(1L, "admin", "admin@example.com", "admin123"));
-        users.add(new User(2L, "user1", "user1@example.com", "password123"));
+    public UserControllerV1(UserRepository userRepository, UserLookupService userLookupService) {
+        this.userRepository = userRepository;
+        this.userLookupService = userLookupService;
     }
 
     // Endpoint sin documentación adecuada
     @GetMapping
     public List<User> getAllUsers() {
         // VULNERABLE: Retorna passwords en texto plano
-        return users;
+        return userRepository.findAll();
     }
 
     @GetMapping("/{id}")
     public User getUserById(@PathVariable Long id) {
         // VULNERABLE: Expone password
-        return users.stream()
-                .filter(user -> user.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return userRepository.findById(id).orElse(null);
     }
 
     @PostMapping
     public User createUser(@RequestBody User user) {
-        user.setId((long) (users.size() + 1));
-        users.add(user);
+        user.setId(null);
+        userRepository.save(user);
+        userLookupService.invalidate(user);
         return user; // VULNERABLE: Retorna password
     }
 
     // Endpoint "secreto" sin documentar
+    @Audited
     @GetMapping("/admin/debug")
     public String getDebugInfo() {
-        return "Debug info: Total users: " + users.size() + 
+        return "Debug info: Total users: " + userRepository.count() + 
                ", Server version: 1.0-DEPRECATED";
     }
 }
\ No newline at end of file
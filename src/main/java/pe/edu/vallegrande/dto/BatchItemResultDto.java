@@ -0,0 +1,54 @@
+package pe.edu.vallegrande.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO con el resultado de un elemento de una creación por lotes
+ */
+@Schema(description = "Result of a single item in a batch user creation")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDto {
+
+    @Schema(description = "Zero-based position of the item in the request", example = "0")
+    private int index;
+
+    @Schema(description = "ID assigned to the created user", example = "3")
+    private Long id;
+
+    @Schema(description = "HTTP-like status of the item", example = "201")
+    private int status;
+
+    @Schema(description = "Error description when the item was rejected", example = "username is required")
+    private String error;
+
+    public BatchItemResultDto() {}
+
+    public BatchItemResultDto(int index, Long id, int status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BatchItemResultDto created(int index, long id) {
+        return new BatchItemResultDto(index, id, 201, null);
+    }
+
+    public static BatchItemResultDto rejected(int index, String error) {
+        return new BatchItemResultDto(index, null, 400, error);
+    }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
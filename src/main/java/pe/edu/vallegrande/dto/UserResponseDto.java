@@ -1,6 +1,7 @@
 package pe.edu.vallegrande.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import pe.edu.vallegrande.model.User;
 
 /**
  * DTO para respuestas de usuario - NO expone información sensible
@@ -27,6 +28,10 @@ public class UserResponseDto {
         this.email = email;
     }
 
+    public static UserResponseDto from(User user) {
+        return new UserResponseDto(user.getId(), user.getUsername(), user.getEmail());
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,23 @@
+package pe.edu.vallegrande.fleet;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Estado de un endpoint en una instancia: a qué versión pertenece y cuántas peticiones atendió.
+ */
+@Schema(description = "Endpoint exposed by one instance and the requests it handled")
+public record EndpointState(
+        @Schema(description = "HTTP method, or ANY", example = "GET") String method,
+        @Schema(description = "Path template", example = "/api/users/{id}") String path,
+        @Schema(description = "API version", example = "v1") String version,
+        @Schema(description = "Requests handled since the instance started") long requests) {
+
+    /** Clave del endpoint en los snapshots y deltas. */
+    public String key() {
+        return method + " " + path;
+    }
+
+    long hash() {
+        return StateHash.of("endpoint", method, path, version, Long.toString(requests));
+    }
+}
@@ -0,0 +1,481 @@
+package pe.edu.vallegrande.fleet;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import pe.edu.vallegrande.inventory.InventoryDocument;
+import pe.edu.vallegrande.inventory.InventoryService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Agregador del inventario de la flota (app.fleet.aggregator.enabled=true).
+ * <p>
+ * Cada instancia envía deltas sobre la última revisión confirmada ({@link InventoryDelta}). Al aplicar uno
+ * solo se tocan las entradas que cambiaron: los totales por endpoint y por versión se ajustan restando la
+ * entrada vieja y sumando la nueva, y el hash del estado de la instancia se verifica contra el que envió.
+ * Si la revisión base no coincide o el hash difiere, el delta se rechaza y se descarta lo que había de esa
+ * instancia, que responde con un snapshot completo.
+ * <p>
+ * Aplicar un delta solo marca el estado como modificado: el documento agregado se reconstruye (serializar,
+ * SHA-256 y gzip de toda la flota) como mucho una vez por {@code publish-interval} en el hilo de fondo y
+ * fuera del lock, de modo que su coste no crece con el número de deltas recibidos. {@code GET
+ * /api/v2/fleet/inventory} devuelve esos bytes ya preparados, con un retraso máximo de un intervalo. Las instancias que dejan de reportar
+ * durante {@code instance-timeout} salen del inventario.
+ * <p>
+ * Los deltas se validan antes de tocar el estado: campos obligatorios y límites de instancias
+ * ({@code max-instances}) y de endpoints por instancia ({@code max-endpoints-per-instance}).
+ */
+@Service
+@ConditionalOnProperty(name = "app.fleet.aggregator.enabled", havingValue = "true")
+public class FleetAggregator {
+
+    public static final String INSTANCES_METRIC = "fleet.instances";
+    public static final String REJECTED_METRIC = "fleet.sync.rejected";
+    /** Cabecera con el secreto compartido {@code app.fleet.token}, si está configurado. */
+    public static final String TOKEN_HEADER = "X-Fleet-Token";
+
+    static final String STATUS_MIXED = "MIXED";
+    static final int MAX_FIELD_LENGTH = 2048;
+
+    private static final Logger log = LoggerFactory.getLogger(FleetAggregator.class);
+
+    private final ObjectMapper objectMapper;
+    private final long instanceTimeoutMillis;
+    private final int maxInstances;
+    private final int maxEndpointsPerInstance;
+    private final LongSupplier clock;
+    private final Counter rejected;
+
+    // ReentrantLock y no synchronized: no fija el hilo portador de los virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    // Serializa las publicaciones para que un documento viejo no sustituya a uno más reciente
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    // Estado protegido por lock; los lectores solo usan el documento publicado
+    private final Map<String, Member> members = new TreeMap<>();
+    private final Map<String, EndpointTotals> endpoints = new TreeMap<>();
+    private final Map<String, VersionTotals> versions = new TreeMap<>();
+    private boolean dirty = true;
+
+    private volatile int instanceCount;
+    private volatile InventoryDocument document;
+    private ScheduledExecutorService sweeper;
+
+    @Autowired
+    public FleetAggregator(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${app.fleet.aggregator.instance-timeout:60s}") Duration instanceTimeout,
+                           @Value("${app.fleet.aggregator.max-instances:1000}") int maxInstances,
+                           @Value("${app.fleet.aggregator.max-endpoints-per-instance:2000}") int maxEndpointsPerInstance,
+                           @Value("${app.fleet.aggregator.publish-interval:1s}") Duration publishInterval) {
+        this(objectMapper, meterRegistry, instanceTimeout, maxInstances, maxEndpointsPerInstance,
+                System::currentTimeMillis);
+        long sweepMillis = Math.max(1000, instanceTimeoutMillis / 4);
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fleet-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::evictStaleQuietly, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        long publishMillis = Math.max(100, publishInterval.toMillis());
+        sweeper.scheduleWithFixedDelay(this::publishQuietly, publishMillis, publishMillis, TimeUnit.MILLISECONDS);
+    }
+
+    FleetAggregator(ObjectMapper objectMapper, MeterRegistry meterRegistry, Duration instanceTimeout,
+                    int maxInstances, int maxEndpointsPerInstance, LongSupplier clock) {
+        this.objectMapper = objectMapper;
+        this.instanceTimeoutMillis = instanceTimeout.toMillis();
+        this.maxInstances = maxInstances;
+        this.maxEndpointsPerInstance = maxEndpointsPerInstance;
+        this.clock = clock;
+        this.rejected = Counter.builder(REJECTED_METRIC)
+                .description("Inventory deltas rejected because of a revision or hash mismatch")
+                .register(meterRegistry);
+        Gauge.builder(INSTANCES_METRIC, this, aggregator -> aggregator.instanceCount)
+                .description("Instances reporting to the fleet inventory")
+                .register(meterRegistry);
+        publishIfDirty();
+    }
+
+    /**
+     * Aplica el delta de una instancia.
+     *
+     * @throws IllegalArgumentException si el delta está incompleto o supera el límite de endpoints
+     * @throws IllegalStateException    si es una instancia nueva y ya se alcanzó {@code max-instances}
+     */
+    public SyncAck apply(InventoryDelta delta) {
+        validate(delta);
+        lock.lock();
+        try {
+            return applyLocked(delta);
+        } finally {
+            instanceCount = members.size();
+            lock.unlock();
+        }
+    }
+
+    private SyncAck applyLocked(InventoryDelta delta) {
+        String instanceId = delta.instanceId();
+        Member member = members.get(instanceId);
+        if (delta.baseRevision() != 0 && (member == null || member.revision != delta.baseRevision())) {
+            rejected.increment();
+            return new SyncAck(false, member == null ? 0 : member.revision);
+        }
+        if (member == null && members.size() >= maxInstances) {
+            throw new IllegalStateException("Fleet inventory already tracks " + maxInstances + " instances");
+        }
+        int endpointCount = endpointCountAfter(delta.baseRevision() == 0 ? null : member, delta);
+        if (endpointCount > maxEndpointsPerInstance) {
+            throw new IllegalArgumentException("Instance " + instanceId + " would expose " + endpointCount
+                    + " endpoints, more than the limit of " + maxEndpointsPerInstance);
+        }
+        if (delta.baseRevision() == 0) {
+            if (member != null) {
+                remove(member);
+            }
+            member = new Member(instanceId);
+            members.put(instanceId, member);
+        }
+
+        for (String key : delta.removedEndpoints()) {
+            EndpointState old = member.endpoints.remove(key);
+            if (old != null) {
+                subtract(member, old);
+            }
+        }
+        for (EndpointState endpoint : delta.endpoints().values()) {
+            EndpointState old = member.endpoints.put(endpoint.key(), endpoint);
+            if (old != null) {
+                subtract(member, old);
+            }
+            add(member, endpoint);
+        }
+        for (String version : delta.removedVersions()) {
+            VersionState old = member.versions.remove(version);
+            if (old != null) {
+                subtract(member, version, old);
+            }
+        }
+        for (Map.Entry<String, VersionState> version : delta.versions().entrySet()) {
+            VersionState old = member.versions.put(version.getKey(), version.getValue());
+            if (old != null) {
+                subtract(member, version.getKey(), old);
+            }
+            add(member, version.getKey(), version.getValue());
+        }
+        member.revision = delta.revision();
+        member.lastSyncMillis = clock.getAsLong();
+
+        if (member.hash != delta.hash()) {
+            // Estado divergente (p. ej. un delta perdido): se descarta y la instancia reenvía todo
+            log.warn("Inventory hash mismatch for {} at revision {}, requesting a full snapshot",
+                    instanceId, delta.revision());
+            remove(member);
+            members.remove(instanceId);
+            rejected.increment();
+            dirty = true;
+            return new SyncAck(false, 0);
+        }
+        if (!delta.isEmpty() || delta.baseRevision() == 0) {
+            dirty = true;
+        }
+        return new SyncAck(true, member.revision);
+    }
+
+    /** Documento agregado ya serializado en la última publicación. */
+    public InventoryDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * Retira las instancias que no han reportado durante {@code instance-timeout}.
+     *
+     * @return instancias retiradas
+     */
+    int evictStale() {
+        lock.lock();
+        try {
+            return evictStaleLocked();
+        } finally {
+            instanceCount = members.size();
+            lock.unlock();
+        }
+    }
+
+    private int evictStaleLocked() {
+        long oldest = clock.getAsLong() - instanceTimeoutMillis;
+        int evicted = 0;
+        for (Iterator<Member> it = members.values().iterator(); it.hasNext(); ) {
+            Member member = it.next();
+            if (member.lastSyncMillis < oldest) {
+                log.info("Instance {} stopped reporting, removing it from the fleet inventory", member.instanceId);
+                remove(member);
+                it.remove();
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            dirty = true;
+        }
+        return evicted;
+    }
+
+    private void evictStaleQuietly() {
+        try {
+            evictStale();
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría la tarea periódica
+            log.warn("Cannot evict stale fleet instances", e);
+        }
+    }
+
+    /**
+     * Comprueba los campos obligatorios antes de modificar nada: un delta a medio aplicar dejaría
+     * los totales inconsistentes.
+     */
+    static void validate(InventoryDelta delta) {
+        requireText(delta.instanceId(), "instanceId");
+        for (EndpointState endpoint : delta.endpoints().values()) {
+            if (endpoint == null) {
+                throw new IllegalArgumentException("endpoints must not contain null entries");
+            }
+            requireText(endpoint.method(), "endpoint method");
+            requireText(endpoint.path(), "endpoint path");
+            requireText(endpoint.version(), "endpoint version");
+        }
+        for (String key : delta.removedEndpoints()) {
+            requireText(key, "removedEndpoints entry");
+        }
+        for (Map.Entry<String, VersionState> version : delta.versions().entrySet()) {
+            requireText(version.getKey(), "version");
+            if (version.getValue() == null) {
+                throw new IllegalArgumentException("version " + version.getKey() + " has no state");
+            }
+            requireText(version.getValue().status(), "version status");
+        }
+        for (String version : delta.removedVersions()) {
+            requireText(version, "removedVersions entry");
+        }
+    }
+
+    private static void requireText(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        if (value.length() > MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException(field + " is longer than " + MAX_FIELD_LENGTH + " characters");
+        }
+    }
+
+    /** Endpoints que tendría la instancia tras aplicar el delta ({@code member} null = estado vacío). */
+    private static int endpointCountAfter(Member member, InventoryDelta delta) {
+        if (member == null) {
+            return delta.endpoints().size();
+        }
+        Set<String> removed = new HashSet<>(delta.removedEndpoints());
+        int count = member.endpoints.size();
+        for (String key : removed) {
+            if (member.endpoints.containsKey(key)) {
+                count--;
+            }
+        }
+        for (EndpointState endpoint : delta.endpoints().values()) {
+            String key = endpoint.key();
+            if (!member.endpoints.containsKey(key) || removed.contains(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private void add(Member member, EndpointState endpoint) {
+        EndpointTotals totals = endpoints.computeIfAbsent(endpoint.key(), k -> new EndpointTotals());
+        totals.method = endpoint.method();
+        totals.path = endpoint.path();
+        totals.version = endpoint.version();
+        totals.instances++;
+        totals.requests += endpoint.requests();
+        VersionTotals version = versions.computeIfAbsent(endpoint.version(), v -> new VersionTotals());
+        version.endpointsByInstance.merge(member.instanceId, 1, Integer::sum);
+        version.requests += endpoint.requests();
+        member.hash += endpoint.hash();
+    }
+
+    private void subtract(Member member, EndpointState endpoint) {
+        EndpointTotals totals = endpoints.get(endpoint.key());
+        totals.requests -= endpoint.requests();
+        if (--totals.instances == 0) {
+            endpoints.remove(endpoint.key());
+        }
+        VersionTotals version = versions.get(endpoint.version());
+        version.endpointsByInstance.computeIfPresent(member.instanceId, (id, count) -> count == 1 ? null : count - 1);
+        version.requests -= endpoint.requests();
+        removeIfUnused(endpoint.version(), version);
+        member.hash -= endpoint.hash();
+    }
+
+    private void add(Member member, String versionId, VersionState state) {
+        VersionTotals version = versions.computeIfAbsent(versionId, v -> new VersionTotals());
+        version.statuses.merge(state.status(), 1, Integer::sum);
+        version.gone += state.gone();
+        member.hash += state.hash(versionId);
+    }
+
+    private void subtract(Member member, String versionId, VersionState state) {
+        VersionTotals version = versions.get(versionId);
+        version.statuses.computeIfPresent(state.status(), (status, count) -> count == 1 ? null : count - 1);
+        version.gone -= state.gone();
+        removeIfUnused(versionId, version);
+        member.hash -= state.hash(versionId);
+    }
+
+    /** Resta de los totales todo lo que aportaba la instancia. */
+    private void remove(Member member) {
+        for (EndpointState endpoint : member.endpoints.values()) {
+            subtract(member, endpoint);
+        }
+        for (Map.Entry<String, VersionState> version : member.versions.entrySet()) {
+            subtract(member, version.getKey(), version.getValue());
+        }
+        member.endpoints.clear();
+        member.versions.clear();
+    }
+
+    private void removeIfUnused(String versionId, VersionTotals version) {
+        if (version.endpointsByInstance.isEmpty() && version.statuses.isEmpty()) {
+            versions.remove(versionId);
+        }
+    }
+
+    /**
+     * Reconstruye el documento si el estado cambió desde la última publicación. Bajo el lock solo se copian
+     * las vistas; serializar, calcular el hash y comprimir se hace fuera.
+     */
+    void publishIfDirty() {
+        publishLock.lock();
+        try {
+            FleetInventory inventory;
+            lock.lock();
+            try {
+                if (!dirty) {
+                    return;
+                }
+                inventory = snapshot();
+                dirty = false;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                document = InventoryDocument.of(objectMapper.writeValueAsBytes(inventory));
+            } catch (JsonProcessingException e) {
+                markDirty();
+                throw new IllegalStateException("Cannot serialize fleet inventory", e);
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private void markDirty() {
+        lock.lock();
+        try {
+            dirty = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publishQuietly() {
+        try {
+            publishIfDirty();
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría la tarea periódica
+            log.warn("Cannot publish the fleet inventory", e);
+        }
+    }
+
+    private FleetInventory snapshot() {
+        List<FleetInventory.Member> memberViews = new ArrayList<>(members.size());
+        for (Member member : members.values()) {
+            memberViews.add(new FleetInventory.Member(member.instanceId, member.revision, member.endpoints.size()));
+        }
+        Map<String, FleetInventory.Version> versionViews = new TreeMap<>();
+        versions.forEach((id, version) -> versionViews.put(id, new FleetInventory.Version(
+                version.status(), List.copyOf(version.endpointsByInstance.keySet()), version.requests, version.gone)));
+        List<FleetInventory.Endpoint> endpointViews = new ArrayList<>(endpoints.size());
+        for (EndpointTotals totals : endpoints.values()) {
+            endpointViews.add(new FleetInventory.Endpoint(
+                    totals.method, totals.path, totals.version, totals.instances, totals.requests));
+        }
+        return new FleetInventory(members.size(), memberViews, versionViews, endpointViews);
+    }
+
+    private static final class Member {
+
+        final String instanceId;
+        final Map<String, EndpointState> endpoints = new HashMap<>();
+        final Map<String, VersionState> versions = new HashMap<>();
+        long revision;
+        long hash;
+        long lastSyncMillis;
+
+        Member(String instanceId) {
+            this.instanceId = instanceId;
+        }
+    }
+
+    private static final class EndpointTotals {
+
+        String method;
+        String path;
+        String version;
+        int instances;
+        long requests;
+    }
+
+    private static final class VersionTotals {
+
+        /** Endpoints de la versión por instancia; las claves son las instancias que aún la exponen. */
+        final Map<String, Integer> endpointsByInstance = new TreeMap<>();
+        /** Instancias por estado de ciclo de vida. */
+        final Map<String, Integer> statuses = new HashMap<>();
+        long requests;
+        long gone;
+
+        String status() {
+            if (statuses.isEmpty()) {
+                return InventoryService.STATUS_UNKNOWN;
+            }
+            return statuses.size() == 1 ? statuses.keySet().iterator().next() : STATUS_MIXED;
+        }
+    }
+}
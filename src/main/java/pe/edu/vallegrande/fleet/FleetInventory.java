@@ -0,0 +1,50 @@
+package pe.edu.vallegrande.fleet;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inventario agregado de todas las instancias que reportan al agregador.
+ */
+@Schema(description = "Inventory aggregated from every reporting instance")
+public record FleetInventory(
+        @Schema(description = "Instances currently reporting") int instances,
+        @Schema(description = "Reporting instances and the revision of their last sync") List<Member> members,
+        @Schema(description = "Versions exposed across the fleet") Map<String, Version> versions,
+        @Schema(description = "Endpoints exposed across the fleet") List<Endpoint> endpoints) {
+
+    /**
+     * Instancia que reporta.
+     */
+    @Schema(description = "Reporting instance")
+    public record Member(
+            @Schema(description = "Instance id", example = "host-a:8090") String instanceId,
+            @Schema(description = "Revision of the last applied delta") long revision,
+            @Schema(description = "Endpoints it exposes") int endpoints) {
+    }
+
+    /**
+     * Versión en la flota: qué instancias la exponen todavía y cuánto tráfico recibe.
+     */
+    @Schema(description = "Version across the fleet")
+    public record Version(
+            @Schema(description = "Lifecycle status, or MIXED if instances disagree", example = "SUNSET") String status,
+            @Schema(description = "Instances that still expose endpoints of this version") List<String> instances,
+            @Schema(description = "Requests handled by its endpoints across the fleet") long requests,
+            @Schema(description = "Requests answered with 410 Gone across the fleet") long gone) {
+    }
+
+    /**
+     * Endpoint en la flota.
+     */
+    @Schema(description = "Endpoint across the fleet")
+    public record Endpoint(
+            @Schema(description = "HTTP method", example = "GET") String method,
+            @Schema(description = "Path template", example = "/legacy/test") String path,
+            @Schema(description = "API version", example = "legacy") String version,
+            @Schema(description = "Instances exposing it") int instances,
+            @Schema(description = "Requests handled across the fleet") long requests) {
+    }
+}
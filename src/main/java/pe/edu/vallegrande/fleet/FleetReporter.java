@@ -0,0 +1,222 @@
+package pe.edu.vallegrande.fleet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Reporta el inventario de esta instancia al agregador cada {@code app.fleet.sync-interval}.
+ * <p>
+ * Guarda el hash de cada entrada que el agregador ya confirmó y solo envía las que cambiaron o
+ * desaparecieron; sin cambios, el envío es un latido vacío con la misma revisión. Si el agregador
+ * rechaza el delta (se reinició, perdió un delta o el hash no coincide) se vuelve a enviar el estado
+ * completo con revisión base 0.
+ * <p>
+ * Con {@code app.fleet.aggregator-url} reporta por HTTP; si la propia instancia es el agregador, le
+ * entrega los deltas directamente. Sin ninguno de los dos no hace nada.
+ */
+@Component
+public class FleetReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetReporter.class);
+
+    private final Supplier<InstanceSnapshot> source;
+    private final FleetTransport transport;
+    private final long intervalMillis;
+
+    private String instanceId;
+    private ScheduledExecutorService scheduler;
+
+    // syncNow espera la respuesta HTTP con el lock tomado: con synchronized fijaría el hilo portador
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Último estado confirmado por el agregador, protegido por lock
+    private final Map<String, Long> ackedEndpoints = new HashMap<>();
+    private final Map<String, Long> ackedVersions = new HashMap<>();
+    private volatile long ackedRevision;
+
+    @Autowired
+    public FleetReporter(LocalInventorySource source, ObjectMapper objectMapper,
+                         ObjectProvider<FleetAggregator> aggregator,
+                         @Value("${app.fleet.instance-id:}") String instanceId,
+                         @Value("${app.fleet.aggregator-url:}") String aggregatorUrl,
+                         @Value("${app.fleet.token:}") String token,
+                         @Value("${app.fleet.sync-interval:10s}") Duration interval) {
+        this(source::snapshot, transport(aggregatorUrl, token, objectMapper, aggregator.getIfAvailable()),
+                instanceId, interval);
+    }
+
+    FleetReporter(Supplier<InstanceSnapshot> source, FleetTransport transport, String instanceId,
+                  Duration interval) {
+        this.source = source;
+        this.transport = transport;
+        this.instanceId = instanceId == null || instanceId.isBlank() ? null : instanceId;
+        this.intervalMillis = interval.toMillis();
+    }
+
+    private static FleetTransport transport(String aggregatorUrl, String token, ObjectMapper objectMapper,
+                                            FleetAggregator aggregator) {
+        if (!aggregatorUrl.isBlank()) {
+            return new HttpFleetTransport(aggregatorUrl, token, objectMapper);
+        }
+        return aggregator == null ? null : aggregator::apply;
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        lock.lock();
+        try {
+            if (transport == null || scheduler != null) {
+                return;
+            }
+            if (instanceId == null) {
+                instanceId = hostName() + ":" + event.getWebServer().getPort();
+            }
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "fleet-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::syncQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+            log.info("Reporting inventory to the fleet aggregator as {}", instanceId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Envía los cambios pendientes y, si el agregador lo pide, el estado completo.
+     *
+     * @return respuesta del agregador, o {@code null} si no hay agregador configurado
+     */
+    public SyncAck syncNow() throws IOException {
+        if (transport == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            InstanceSnapshot snapshot = source.get();
+            InventoryDelta delta = diff(snapshot);
+            SyncAck ack = transport.send(delta);
+            if (!ack.applied()) {
+                log.info("Fleet aggregator holds revision {} for {}, sending a full snapshot",
+                        ack.revision(), instanceId);
+                reset();
+                delta = diff(snapshot);
+                ack = transport.send(delta);
+            }
+            if (ack.applied()) {
+                commit(snapshot, delta.revision());
+            } else {
+                reset();
+            }
+            return ack;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Revisión confirmada por el agregador (0 si ninguna). */
+    long ackedRevision() {
+        return ackedRevision;
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            syncNow();
+        } catch (IOException | RuntimeException e) {
+            // El siguiente intento reenvía lo pendiente: el estado confirmado no cambió
+            log.warn("Cannot sync inventory with the fleet aggregator: {}", e.toString());
+        }
+    }
+
+    private InventoryDelta diff(InstanceSnapshot snapshot) {
+        Map<String, EndpointState> endpoints = new HashMap<>();
+        for (EndpointState endpoint : snapshot.endpoints().values()) {
+            if (!Objects.equals(ackedEndpoints.get(endpoint.key()), endpoint.hash())) {
+                endpoints.put(endpoint.key(), endpoint);
+            }
+        }
+        List<String> removedEndpoints = new ArrayList<>();
+        for (String key : ackedEndpoints.keySet()) {
+            if (!snapshot.endpoints().containsKey(key)) {
+                removedEndpoints.add(key);
+            }
+        }
+        Map<String, VersionState> versions = new HashMap<>();
+        snapshot.versions().forEach((version, state) -> {
+            if (!Objects.equals(ackedVersions.get(version), state.hash(version))) {
+                versions.put(version, state);
+            }
+        });
+        List<String> removedVersions = new ArrayList<>();
+        for (String version : ackedVersions.keySet()) {
+            if (!snapshot.versions().containsKey(version)) {
+                removedVersions.add(version);
+            }
+        }
+        boolean changed = !endpoints.isEmpty() || !removedEndpoints.isEmpty()
+                || !versions.isEmpty() || !removedVersions.isEmpty();
+        long revision = changed || ackedRevision == 0 ? ackedRevision + 1 : ackedRevision;
+        return new InventoryDelta(instanceId, ackedRevision, revision, snapshot.hash(),
+                endpoints, removedEndpoints, versions, removedVersions);
+    }
+
+    private void commit(InstanceSnapshot snapshot, long revision) {
+        ackedEndpoints.clear();
+        for (EndpointState endpoint : snapshot.endpoints().values()) {
+            ackedEndpoints.put(endpoint.key(), endpoint.hash());
+        }
+        ackedVersions.clear();
+        snapshot.versions().forEach((version, state) -> ackedVersions.put(version, state.hash(version)));
+        ackedRevision = revision;
+    }
+
+    private void reset() {
+        ackedEndpoints.clear();
+        ackedVersions.clear();
+        ackedRevision = 0;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
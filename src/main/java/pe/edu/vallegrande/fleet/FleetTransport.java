@@ -0,0 +1,12 @@
+package pe.edu.vallegrande.fleet;
+
+import java.io.IOException;
+
+/**
+ * Envío de deltas al agregador.
+ */
+@FunctionalInterface
+interface FleetTransport {
+
+    SyncAck send(InventoryDelta delta) throws IOException;
+}
@@ -0,0 +1,56 @@
+package pe.edu.vallegrande.fleet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Envía los deltas a {@code POST {aggregator}/api/v2/fleet/sync}. El agregador responde 200 si aplicó el
+ * delta y 409 si necesita un snapshot completo; en ambos casos el cuerpo es un {@link SyncAck}.
+ */
+final class HttpFleetTransport implements FleetTransport {
+
+    static final String SYNC_PATH = "/api/v2/fleet/sync";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private final URI syncUri;
+    private final String token;
+    private final ObjectMapper objectMapper;
+
+    HttpFleetTransport(String aggregatorUrl, String token, ObjectMapper objectMapper) {
+        String base = aggregatorUrl.endsWith("/") ? aggregatorUrl.substring(0, aggregatorUrl.length() - 1)
+                : aggregatorUrl;
+        this.syncUri = URI.create(base + SYNC_PATH);
+        this.token = token;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public SyncAck send(InventoryDelta delta) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(syncUri)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(delta)));
+        if (token != null && !token.isEmpty()) {
+            request.header(FleetAggregator.TOKEN_HEADER, token);
+        }
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while syncing with " + syncUri, e);
+        }
+        if (response.statusCode() != 200 && response.statusCode() != 409) {
+            throw new IOException("Aggregator " + syncUri + " answered " + response.statusCode());
+        }
+        return objectMapper.readValue(response.body(), SyncAck.class);
+    }
+}
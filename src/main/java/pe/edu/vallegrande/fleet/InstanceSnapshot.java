@@ -0,0 +1,29 @@
+package pe.edu.vallegrande.fleet;
+
+import java.util.Map;
+
+/**
+ * Estado completo de una instancia en un momento dado.
+ *
+ * @param endpoints endpoints por {@link EndpointState#key()}
+ * @param versions  versiones por identificador
+ */
+public record InstanceSnapshot(Map<String, EndpointState> endpoints, Map<String, VersionState> versions) {
+
+    public InstanceSnapshot {
+        endpoints = Map.copyOf(endpoints);
+        versions = Map.copyOf(versions);
+    }
+
+    /** Suma de los hashes de todas las entradas (ver {@link StateHash}). */
+    long hash() {
+        long hash = 0;
+        for (EndpointState endpoint : endpoints.values()) {
+            hash += endpoint.hash();
+        }
+        for (Map.Entry<String, VersionState> version : versions.entrySet()) {
+            hash += version.getValue().hash(version.getKey());
+        }
+        return hash;
+    }
+}
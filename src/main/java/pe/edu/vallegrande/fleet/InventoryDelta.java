@@ -0,0 +1,33 @@
+package pe.edu.vallegrande.fleet;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cambios del estado de una instancia desde la última revisión que el agregador confirmó.
+ * Con {@code baseRevision} 0 es un snapshot completo que reemplaza lo que hubiera.
+ */
+@Schema(description = "Changes to one instance's inventory since the last revision acknowledged by the aggregator")
+public record InventoryDelta(
+        @Schema(description = "Reporting instance", example = "host-a:8090") String instanceId,
+        @Schema(description = "Revision the delta applies to; 0 for a full snapshot") long baseRevision,
+        @Schema(description = "Revision after applying the delta") long revision,
+        @Schema(description = "Hash of the complete state after applying the delta") long hash,
+        @Schema(description = "Endpoints added or changed, by \"METHOD path\"") Map<String, EndpointState> endpoints,
+        @Schema(description = "Endpoints no longer exposed") List<String> removedEndpoints,
+        @Schema(description = "Versions added or changed") Map<String, VersionState> versions,
+        @Schema(description = "Versions no longer present") List<String> removedVersions) {
+
+    public InventoryDelta {
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+        removedEndpoints = removedEndpoints == null ? List.of() : List.copyOf(removedEndpoints);
+        versions = versions == null ? Map.of() : Map.copyOf(versions);
+        removedVersions = removedVersions == null ? List.of() : List.copyOf(removedVersions);
+    }
+
+    boolean isEmpty() {
+        return endpoints.isEmpty() && removedEndpoints.isEmpty() && versions.isEmpty() && removedVersions.isEmpty();
+    }
+}
@@ -0,0 +1,62 @@
+package pe.edu.vallegrande.fleet;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import pe.edu.vallegrande.inventory.ApiInventory;
+import pe.edu.vallegrande.inventory.DiscoveredEndpoint;
+import pe.edu.vallegrande.inventory.InventoryService;
+import pe.edu.vallegrande.lifecycle.SunsetFilter;
+import pe.edu.vallegrande.metrics.EndpointTrafficStats;
+import pe.edu.vallegrande.metrics.TrafficRegistry;
+import pe.edu.vallegrande.metrics.VersionTraffic;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Estado de esta instancia tal como se reporta al agregador: endpoints del inventario con su tráfico
+ * ({@link TrafficRegistry}) y, por versión, el estado efectivo de su ciclo de vida y las respuestas 410.
+ */
+@Component
+public class LocalInventorySource {
+
+    private final InventoryService inventoryService;
+    private final TrafficRegistry trafficRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public LocalInventorySource(InventoryService inventoryService, TrafficRegistry trafficRegistry,
+                                MeterRegistry meterRegistry) {
+        this.inventoryService = inventoryService;
+        this.trafficRegistry = trafficRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public InstanceSnapshot snapshot() {
+        Map<String, Long> calls = new HashMap<>();
+        for (VersionTraffic traffic : trafficRegistry.report().values()) {
+            for (EndpointTrafficStats endpoint : traffic.endpoints()) {
+                calls.merge(endpoint.method() + " " + endpoint.path(), endpoint.calls(), Long::sum);
+            }
+        }
+        ApiInventory inventory = inventoryService.getInventory();
+        Map<String, EndpointState> endpoints = new HashMap<>();
+        for (DiscoveredEndpoint endpoint : inventory.endpoints()) {
+            String key = endpoint.method() + " " + endpoint.path();
+            endpoints.put(key, new EndpointState(endpoint.method(), endpoint.path(), endpoint.version(),
+                    calls.getOrDefault(key, 0L)));
+        }
+        LocalDate today = LocalDate.now();
+        Map<String, VersionState> versions = new HashMap<>();
+        for (String version : inventory.versions().keySet()) {
+            versions.put(version, new VersionState(inventoryService.lifecycleStatus(version, today), gone(version)));
+        }
+        return new InstanceSnapshot(endpoints, versions);
+    }
+
+    private long gone(String version) {
+        Counter counter = meterRegistry.find(SunsetFilter.GONE_METRIC).tag("version", version).counter();
+        return counter == null ? 0 : (long) counter.count();
+    }
+}
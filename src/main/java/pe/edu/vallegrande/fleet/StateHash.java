@@ -0,0 +1,34 @@
+package pe.edu.vallegrande.fleet;
+
+/**
+ * Hash de 64 bits de cada entrada del estado de una instancia (FNV-1a sobre los campos con un
+ * finalizador de mezcla). El hash de un estado completo es la suma de los de sus entradas: no depende
+ * del orden y se actualiza restando la entrada vieja y sumando la nueva, así que el agregador puede
+ * verificar un delta sin recorrer el estado entero. Se calcula igual en todas las JVM.
+ */
+final class StateHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private StateHash() {
+    }
+
+    static long of(String... fields) {
+        long hash = FNV_OFFSET;
+        for (String field : fields) {
+            if (field != null) {
+                for (int i = 0; i < field.length(); i++) {
+                    hash = (hash ^ field.charAt(i)) * FNV_PRIME;
+                }
+            }
+            // Separador (y marca de null) para que ("ab", "c") y ("a", "bc") no coincidan
+            hash = (hash ^ (field == null ? 0x1_0000 : 0x1_0001)) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,16 @@
+package pe.edu.vallegrande.fleet;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Respuesta del agregador a un delta.
+ *
+ * @param applied  si el delta se aplicó; si no, la instancia debe enviar un snapshot completo
+ * @param revision revisión que el agregador tiene de la instancia (0 si ninguna)
+ */
+@Schema(description = "Aggregator answer to an inventory delta")
+public record SyncAck(
+        @Schema(description = "Whether the delta was applied; if not, the instance must send a full snapshot")
+        boolean applied,
+        @Schema(description = "Revision the aggregator holds for the instance, 0 if none") long revision) {
+}
@@ -0,0 +1,16 @@
+package pe.edu.vallegrande.fleet;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Estado de una versión en una instancia.
+ */
+@Schema(description = "Lifecycle status of a version on one instance")
+public record VersionState(
+        @Schema(description = "Effective lifecycle status", example = "SUNSET") String status,
+        @Schema(description = "Requests answered with 410 Gone since the instance started") long gone) {
+
+    long hash(String version) {
+        return StateHash.of("version", version, status, Long.toString(gone));
+    }
+}
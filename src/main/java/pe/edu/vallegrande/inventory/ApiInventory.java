@@ -0,0 +1,26 @@
+package pe.edu.vallegrande.inventory;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modelo inmutable del inventario de APIs publicado en /api/v2/inventory
+ */
+@Schema(description = "API inventory with every known version and its status")
+public record ApiInventory(
+        @Schema(description = "Versions by identifier") Map<String, ApiVersionInfo> versions,
+        @Schema(description = "Current version", example = "v2") String currentVersion,
+        @Schema(description = "Documentation URL", example = "/swagger-ui.html") String documentationUrl,
+        @Schema(description = "Last inventory update", example = "2024-02-01") String lastUpdated,
+        @Schema(description = "Endpoints discovered from the registered controllers") List<DiscoveredEndpoint> endpoints) {
+
+    public ApiInventory {
+        // Orden de inserción estable: el ETag debe ser el mismo en todas las instancias
+        versions = Collections.unmodifiableMap(new LinkedHashMap<>(versions));
+        endpoints = List.copyOf(endpoints);
+    }
+}
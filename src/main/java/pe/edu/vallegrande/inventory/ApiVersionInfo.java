@@ -0,0 +1,19 @@
+package pe.edu.vallegrande.inventory;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Estado y ciclo de vida de una versión de la API dentro del inventario
+ */
+@Schema(description = "Lifecycle information of an API version")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiVersionInfo(
+        @Schema(description = "Version status", example = "DEPRECATED") String status,
+        @Schema(description = "Release date", example = "2024-01-15") String releaseDate,
+        @Schema(description = "Deprecation date", example = "2024-01-01") String deprecationDate,
+        @Schema(description = "Sunset date", example = "2024-06-01") String sunsetDate,
+        @Schema(description = "Version description") String description,
+        @Schema(description = "Known security issues") String securityIssues,
+        @Schema(description = "Main features") String features) {
+}
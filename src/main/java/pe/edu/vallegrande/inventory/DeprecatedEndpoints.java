@@ -0,0 +1,19 @@
+package pe.edu.vallegrande.inventory;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Modelo inmutable de los endpoints deprecados publicado en /api/v2/inventory/deprecated
+ */
+@Schema(description = "Deprecated endpoints that should not be used")
+public record DeprecatedEndpoints(
+        @Schema(description = "Deprecated endpoints and their replacement") List<String> endpoints,
+        @Schema(description = "Removal date", example = "2024-06-01") String removalDate,
+        @Schema(description = "Migration guide URL", example = "/docs/migration-guide") String migrationGuide) {
+
+    public DeprecatedEndpoints {
+        endpoints = List.copyOf(endpoints);
+    }
+}
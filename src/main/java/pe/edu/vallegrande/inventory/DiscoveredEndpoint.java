@@ -0,0 +1,26 @@
+package pe.edu.vallegrande.inventory;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Endpoint descubierto en los controladores registrados en Spring MVC
+ */
+@Schema(description = "Endpoint discovered from the registered request mappings")
+public record DiscoveredEndpoint(
+        @Schema(description = "HTTP method, or ANY when the mapping accepts every method", example = "GET") String method,
+        @Schema(description = "Path template", example = "/api/v2/users/{id}") String path,
+        @Schema(description = "API version the endpoint belongs to", example = "v2") String version,
+        @Schema(description = "Controller zone derived from its package", example = "SECURE") Zone zone,
+        @Schema(description = "Whether the handler is documented with OpenAPI annotations") boolean documented,
+        @Schema(description = "Handler method", example = "UserControllerV2#getUserById") String handler) {
+
+    /** Método de los mappings que aceptan cualquier método HTTP. */
+    public static final String ANY_METHOD = "ANY";
+
+    /**
+     * Zona del controlador según su paquete (controller.secure / controller.vulnerable)
+     */
+    public enum Zone {
+        SECURE, VULNERABLE, OTHER
+    }
+}
@@ -0,0 +1,132 @@
+package pe.edu.vallegrande.inventory;
+
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Descubre los endpoints de la aplicación leyendo el RequestMappingHandlerMapping una sola vez,
+ * tras el refresco del contexto, y publica el resultado en el inventario.
+ * Toda la reflexión ocurre aquí; las peticiones solo leen el snapshot ya construido.
+ */
+@Component
+public class EndpointDiscovery {
+
+    private static final Pattern PATH_VERSION = Pattern.compile("^/api/(v\\d+)(/|$)");
+    private static final Pattern CLASS_VERSION = Pattern.compile("V(\\d+)$");
+    private static final String HANDLER_MAPPING_BEAN = "requestMappingHandlerMapping";
+
+    private final List<String> basePackages;
+    private final InventoryService inventoryService;
+
+    private volatile EndpointSnapshot snapshot = EndpointSnapshot.EMPTY;
+
+    public EndpointDiscovery(BeanFactory beanFactory, InventoryService inventoryService) {
+        this.basePackages = AutoConfigurationPackages.has(beanFactory)
+                ? List.copyOf(AutoConfigurationPackages.get(beanFactory))
+                : List.of();
+        this.inventoryService = inventoryService;
+    }
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        // El handler mapping se obtiene aquí y no por constructor: los interceptores MVC
+        // dependen de este componente y crearían un ciclo con la configuración de Spring MVC
+        RequestMappingHandlerMapping handlerMapping = event.getApplicationContext()
+                .getBean(HANDLER_MAPPING_BEAN, RequestMappingHandlerMapping.class);
+        snapshot = discover(handlerMapping);
+        inventoryService.publish(snapshot);
+    }
+
+    public EndpointSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Indica si el controlador pertenece a los paquetes de la aplicación (excluye springdoc, actuator, etc.).
+     */
+    public boolean isApplicationController(Class<?> controller) {
+        String packageName = controller.getPackageName();
+        for (String basePackage : basePackages) {
+            if (packageName.equals(basePackage) || packageName.startsWith(basePackage + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    EndpointSnapshot discover(RequestMappingHandlerMapping handlerMapping) {
+        List<DiscoveredEndpoint> endpoints = new ArrayList<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            HandlerMethod handlerMethod = entry.getValue();
+            Class<?> controller = handlerMethod.getBeanType();
+            if (!isApplicationController(controller)) {
+                continue;
+            }
+            boolean documented = AnnotatedElementUtils.hasAnnotation(handlerMethod.getMethod(), Operation.class);
+            DiscoveredEndpoint.Zone zone = zoneOf(controller);
+            String handler = controller.getSimpleName() + "#" + handlerMethod.getMethod().getName();
+            Set<RequestMethod> methods = entry.getKey().getMethodsCondition().getMethods();
+            for (String path : entry.getKey().getPatternValues()) {
+                String version = versionOf(path, controller);
+                if (methods.isEmpty()) {
+                    endpoints.add(new DiscoveredEndpoint(DiscoveredEndpoint.ANY_METHOD, path, version, zone, documented, handler));
+                }
+                for (RequestMethod method : methods) {
+                    endpoints.add(new DiscoveredEndpoint(method.name(), path, version, zone, documented, handler));
+                }
+            }
+        }
+        // El orden del handler mapping no es estable: se ordena para que el ETag sea reproducible
+        endpoints.sort(Comparator.comparing(DiscoveredEndpoint::path)
+                .thenComparing(DiscoveredEndpoint::method)
+                .thenComparing(DiscoveredEndpoint::handler));
+        return new EndpointSnapshot(endpoints);
+    }
+
+    public static DiscoveredEndpoint.Zone zoneOf(Class<?> controller) {
+        String packageName = controller.getPackageName();
+        if (packageName.endsWith(".controller.secure")) {
+            return DiscoveredEndpoint.Zone.SECURE;
+        }
+        if (packageName.endsWith(".controller.vulnerable")) {
+            return DiscoveredEndpoint.Zone.VULNERABLE;
+        }
+        return DiscoveredEndpoint.Zone.OTHER;
+    }
+
+    /**
+     * Versión explícita en la URL (/api/vN/...); si no la hay, el sufijo VN del controlador;
+     * /legacy/** se agrupa como "legacy".
+     */
+    public static String versionOf(String path, Class<?> controller) {
+        Matcher pathVersion = PATH_VERSION.matcher(path);
+        if (pathVersion.find()) {
+            return pathVersion.group(1);
+        }
+        Matcher classVersion = CLASS_VERSION.matcher(controller.getSimpleName());
+        if (classVersion.find()) {
+            return "v" + classVersion.group(1);
+        }
+        if (path.startsWith("/legacy/") || path.equals("/legacy")) {
+            return "legacy";
+        }
+        return "unversioned";
+    }
+}
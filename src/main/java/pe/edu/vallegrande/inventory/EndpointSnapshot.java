@@ -0,0 +1,15 @@
+package pe.edu.vallegrande.inventory;
+
+import java.util.List;
+
+/**
+ * Resultado inmutable de una pasada de descubrimiento de endpoints
+ */
+public record EndpointSnapshot(List<DiscoveredEndpoint> endpoints) {
+
+    public static final EndpointSnapshot EMPTY = new EndpointSnapshot(List.of());
+
+    public EndpointSnapshot {
+        endpoints = List.copyOf(endpoints);
+    }
+}
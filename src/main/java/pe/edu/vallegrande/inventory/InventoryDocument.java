@@ -0,0 +1,128 @@
+package pe.edu.vallegrande.inventory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Documento JSON ya serializado junto con su ETag fuerte.
+ * Se construye una sola vez por cambio del inventario y se sirve tal cual en cada petición.
+ * También guarda la variante gzip, comprimida al construirlo, con su propio ETag fuerte
+ * (una representación distinta no puede compartir ETag fuerte con la original).
+ */
+public final class InventoryDocument {
+
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private final byte[] body;
+    private final String etag;
+    private final byte[] gzipBody;
+    private final String gzipEtag;
+
+    private InventoryDocument(byte[] body, String etag, byte[] gzipBody, String gzipEtag) {
+        this.body = body;
+        this.etag = etag;
+        this.gzipBody = gzipBody;
+        this.gzipEtag = gzipEtag;
+    }
+
+    public static InventoryDocument of(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            String hash = HexFormat.of().formatHex(digest, 0, 16);
+            byte[] gzipBody = gzip(body);
+            // Solo se ofrece gzip si realmente reduce el tamaño
+            if (gzipBody.length >= body.length) {
+                return new InventoryDocument(body, "\"" + hash + "\"", null, null);
+            }
+            return new InventoryDocument(body, "\"" + hash + "\"", gzipBody, "\"" + hash + GZIP_ETAG_SUFFIX + "\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** Bytes del documento; compartidos, no deben modificarse. */
+    public byte[] body() {
+        return body;
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    /** Bytes comprimidos con gzip, o {@code null} si comprimir no reduce el documento. */
+    public byte[] gzipBody() {
+        return gzipBody;
+    }
+
+    /** ETag de la variante gzip, o {@code null} si no existe. */
+    public String gzipEtag() {
+        return gzipEtag;
+    }
+
+    /**
+     * Comparación débil de If-None-Match (RFC 9110): acepta "*", listas de ETags y prefijo W/.
+     * Vale el ETag de cualquiera de las dos variantes, porque ambas tienen el mismo contenido.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        if (ifNoneMatch.equals(etag) || ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si la cabecera Accept-Encoding admite gzip (gzip, x-gzip o *, con q distinto de 0).
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return false;
+        }
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equalsIgnoreCase("x-gzip") && !coding.equals("*")) {
+                continue;
+            }
+            return parts.length < 2 || !isZeroQuality(parts[1].trim());
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        if (!parameter.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(parameter.substring(2)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
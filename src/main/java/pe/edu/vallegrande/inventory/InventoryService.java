@@ -0,0 +1,170 @@
+package pe.edu.vallegrande.inventory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mantiene el inventario de APIs precalculado.
+ * Combina los endpoints descubiertos ({@link EndpointDiscovery}) con los metadatos de ciclo de vida
+ * de cada versión. El modelo se serializa una vez por publicación y los endpoints de inventario
+ * solo devuelven los bytes ya generados.
+ */
+@Service
+public class InventoryService {
+
+    public static final String STATUS_CURRENT = "CURRENT";
+    public static final String STATUS_DEPRECATED = "DEPRECATED";
+    public static final String STATUS_UNKNOWN = "UNKNOWN";
+    /** Estado efectivo (no publicado) de una versión cuya fecha de retirada ya pasó. */
+    public static final String STATUS_SUNSET = "SUNSET";
+
+    static final String CURRENT_VERSION = "v2";
+    static final String DOCUMENTATION_URL = "/api-docs";
+    static final String LAST_UPDATED = "2024-02-01";
+    static final String MIGRATION_GUIDE = "/docs/migration-guide";
+
+    /** Metadatos de ciclo de vida que no se pueden descubrir de los controladores. */
+    static final Map<String, ApiVersionInfo> VERSION_LIFECYCLE = lifecycle();
+
+    /** Notas de migración por ruta; el resto usa la descripción de su versión. */
+    static final Map<String, String> ENDPOINT_NOTES = Map.of(
+            "/api/users", "Use /api/v2/users instead",
+            "/api/users/{id}", "Use /api/v2/users/{id} instead",
+            "/api/users/admin/debug", "Undocumented debug endpoint, not for public use",
+            "/legacy/old-endpoint", "No replacement, functionality removed",
+            "/legacy/test", "Test endpoint, should not be in production",
+            "/legacy/internal/config", "Internal endpoint, not for public use");
+
+    private final ObjectMapper objectMapper;
+
+    /** Estado publicado; se reemplaza de una vez para que los lectores nunca mezclen versiones. */
+    private volatile Published published;
+
+    public InventoryService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        publish(EndpointSnapshot.EMPTY);
+    }
+
+    /**
+     * Reconstruye el inventario a partir de un nuevo snapshot de endpoints.
+     */
+    public void publish(EndpointSnapshot snapshot) {
+        Map<String, ApiVersionInfo> versions = new LinkedHashMap<>(VERSION_LIFECYCLE);
+        for (DiscoveredEndpoint endpoint : snapshot.endpoints()) {
+            // Versiones sin metadatos: se marcan para detectar la deriva del inventario
+            versions.computeIfAbsent(endpoint.version(), version -> new ApiVersionInfo(
+                    STATUS_UNKNOWN, null, null, null,
+                    "Discovered version without lifecycle metadata", null, null));
+        }
+        ApiInventory newInventory = new ApiInventory(
+                versions, CURRENT_VERSION, DOCUMENTATION_URL, LAST_UPDATED, snapshot.endpoints());
+        publish(newInventory, deprecatedEndpointsOf(newInventory));
+    }
+
+    /**
+     * Reemplaza el inventario publicado y regenera los documentos serializados.
+     */
+    public void publish(ApiInventory inventory, DeprecatedEndpoints deprecatedEndpoints) {
+        Map<String, LocalDate> sunsetDates = new LinkedHashMap<>();
+        inventory.versions().forEach((version, info) -> {
+            if (info.sunsetDate() != null) {
+                sunsetDates.put(version, LocalDate.parse(info.sunsetDate()));
+            }
+        });
+        this.published = new Published(inventory, serialize(inventory),
+                deprecatedEndpoints, serialize(deprecatedEndpoints), sunsetDates);
+    }
+
+    /**
+     * Estado efectivo de la versión en la fecha indicada: {@link #STATUS_SUNSET} si ya alcanzó su
+     * fecha de retirada, el estado publicado en otro caso y {@link #STATUS_UNKNOWN} si no está inventariada.
+     */
+    public String lifecycleStatus(String version, LocalDate today) {
+        Published current = published;
+        ApiVersionInfo info = current.inventory().versions().get(version);
+        if (info == null) {
+            return STATUS_UNKNOWN;
+        }
+        LocalDate sunset = current.sunsetDates().get(version);
+        if (sunset != null && !today.isBefore(sunset)) {
+            return STATUS_SUNSET;
+        }
+        return info.status();
+    }
+
+    public ApiInventory getInventory() {
+        return published.inventory();
+    }
+
+    public DeprecatedEndpoints getDeprecatedEndpoints() {
+        return published.deprecatedEndpoints();
+    }
+
+    public InventoryDocument getInventoryDocument() {
+        return published.inventoryDocument();
+    }
+
+    public InventoryDocument getDeprecatedDocument() {
+        return published.deprecatedDocument();
+    }
+
+    private InventoryDocument serialize(Object model) {
+        try {
+            return InventoryDocument.of(objectMapper.writeValueAsBytes(model));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize API inventory", e);
+        }
+    }
+
+    static DeprecatedEndpoints deprecatedEndpointsOf(ApiInventory inventory) {
+        Set<String> paths = new LinkedHashSet<>();
+        List<String> entries = new ArrayList<>();
+        String removalDate = null;
+        for (DiscoveredEndpoint endpoint : inventory.endpoints()) {
+            ApiVersionInfo version = inventory.versions().get(endpoint.version());
+            if (STATUS_CURRENT.equals(version.status()) || !paths.add(endpoint.path())) {
+                continue;
+            }
+            String note = ENDPOINT_NOTES.getOrDefault(endpoint.path(), version.description());
+            entries.add(endpoint.path() + " (" + endpoint.version() + ") - " + note);
+            if (version.sunsetDate() != null
+                    && (removalDate == null || version.sunsetDate().compareTo(removalDate) < 0)) {
+                removalDate = version.sunsetDate();
+            }
+        }
+        return new DeprecatedEndpoints(entries, removalDate, MIGRATION_GUIDE);
+    }
+
+    private static Map<String, ApiVersionInfo> lifecycle() {
+        Map<String, ApiVersionInfo> versions = new LinkedHashMap<>();
+        versions.put("v1", new ApiVersionInfo(
+                STATUS_DEPRECATED, null, "2024-01-01", "2024-06-01",
+                "Legacy version - use v2 instead", "Exposes sensitive data", null));
+        versions.put("v2", new ApiVersionInfo(
+                STATUS_CURRENT, "2024-01-15", null, null,
+                "Current stable version", null, "Secure DTOs, proper documentation, versioned endpoints"));
+        versions.put("v3", new ApiVersionInfo(
+                STATUS_CURRENT, "2026-10-16", null, null,
+                "Reactive variant of v2 (Mono/Flux handlers)", null,
+                "Same contract as v2, NDJSON streaming with demand-driven backpressure"));
+        versions.put("legacy", new ApiVersionInfo(
+                STATUS_DEPRECATED, null, null, "2024-06-01",
+                "Unversioned legacy endpoints - scheduled for removal", "Exposes internal configuration", null));
+        return Collections.unmodifiableMap(versions);
+    }
+
+    private record Published(ApiInventory inventory, InventoryDocument inventoryDocument,
+                             DeprecatedEndpoints deprecatedEndpoints, InventoryDocument deprecatedDocument,
+                             Map<String, LocalDate> sunsetDates) {
+    }
+}
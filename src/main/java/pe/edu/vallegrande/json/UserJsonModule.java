@@ -0,0 +1,83 @@
+package pe.edu.vallegrande.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.stereotype.Component;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.model.User;
+
+import java.io.IOException;
+
+/**
+ * Serializadores escritos a mano para {@link UserResponseDto} y {@link User}.
+ * Sustituyen al BeanSerializer de Jackson (introspección de propiedades e invocación reflexiva
+ * de getters) en los endpoints de listas de V1 y V2: escriben los campos directamente en el
+ * generador, con los nombres ya codificados en UTF-8, sobre los buffers reciclados de Jackson.
+ * La salida es idéntica byte a byte a la de databind (mismo orden de campos y nulls explícitos).
+ * Spring Boot registra este módulo en el ObjectMapper de la aplicación por ser un bean.
+ */
+@Component
+public class UserJsonModule extends SimpleModule {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString PASSWORD = new SerializedString("password");
+
+    public UserJsonModule() {
+        super(UserJsonModule.class.getSimpleName());
+        addSerializer(UserResponseDto.class, new UserResponseDtoSerializer());
+        addSerializer(User.class, new UserSerializer());
+    }
+
+    private static void writeId(JsonGenerator generator, Long id) throws IOException {
+        generator.writeFieldName(ID);
+        if (id == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(id.longValue());
+        }
+    }
+
+    static final class UserResponseDtoSerializer extends StdSerializer<UserResponseDto> {
+
+        UserResponseDtoSerializer() {
+            super(UserResponseDto.class);
+        }
+
+        @Override
+        public void serialize(UserResponseDto dto, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(dto);
+            writeId(generator, dto.getId());
+            generator.writeFieldName(USERNAME);
+            generator.writeString(dto.getUsername());
+            generator.writeFieldName(EMAIL);
+            generator.writeString(dto.getEmail());
+            generator.writeEndObject();
+        }
+    }
+
+    static final class UserSerializer extends StdSerializer<User> {
+
+        UserSerializer() {
+            super(User.class);
+        }
+
+        @Override
+        public void serialize(User user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(user);
+            writeId(generator, user.getId());
+            generator.writeFieldName(USERNAME);
+            generator.writeString(user.getUsername());
+            generator.writeFieldName(EMAIL);
+            generator.writeString(user.getEmail());
+            generator.writeFieldName(PASSWORD); // VULNERABLE (V1): se mantiene la salida original
+            generator.writeString(user.getPassword());
+            generator.writeEndObject();
+        }
+    }
+}
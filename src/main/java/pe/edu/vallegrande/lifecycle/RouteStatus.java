@@ -0,0 +1,84 @@
+package pe.edu.vallegrande.lifecycle;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import pe.edu.vallegrande.inventory.ApiVersionInfo;
+import pe.edu.vallegrande.inventory.InventoryService;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cabeceras de ciclo de vida de una versión, ya formateadas al compilar la tabla de rutas.
+ *
+ * @param deprecation  valor de {@code Deprecation} (RFC 9745), o {@code null}
+ * @param sunset       valor de {@code Sunset} (RFC 8594), o {@code null}
+ * @param link         valor de {@code Link} hacia la guía de migración, o {@code null}
+ * @param sunsetMillis instante de retirada en milisegundos UTC ({@link Long#MAX_VALUE} si no tiene)
+ * @param goneBody     cuerpo JSON de la respuesta 410
+ * @param gone         respuestas 410 servidas para la versión
+ */
+record RouteStatus(String version, String deprecation, String sunset, String link, long sunsetMillis,
+                   byte[] goneBody, Counter gone) {
+
+    static final String GONE_METRIC = "api.sunset.gone";
+
+    private static final DateTimeFormatter HTTP_DATE =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    /**
+     * Estado de la versión, o {@code null} si no hay nada que anunciar (versiones actuales o sin fechas).
+     */
+    static RouteStatus of(String version, ApiVersionInfo info, String migrationGuide,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        boolean deprecated = InventoryService.STATUS_DEPRECATED.equals(info.status());
+        if (!deprecated && info.deprecationDate() == null && info.sunsetDate() == null) {
+            return null;
+        }
+        String deprecation = null;
+        if (info.deprecationDate() != null) {
+            deprecation = "@" + LocalDate.parse(info.deprecationDate()).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        } else if (deprecated) {
+            // Deprecada sin fecha conocida: la forma booleana de los borradores previos al RFC
+            deprecation = "true";
+        }
+        String sunset = null;
+        long sunsetMillis = Long.MAX_VALUE;
+        if (info.sunsetDate() != null) {
+            LocalDate sunsetDate = LocalDate.parse(info.sunsetDate());
+            sunset = HTTP_DATE.format(sunsetDate.atStartOfDay(ZoneOffset.UTC));
+            sunsetMillis = sunsetDate.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+        String link = null;
+        if (migrationGuide != null) {
+            link = "<" + migrationGuide + ">; rel=\"" + (deprecation != null ? "deprecation" : "sunset")
+                    + "\"; type=\"text/html\"";
+        }
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("error", "Gone");
+        body.put("message", "API version " + version + " was retired on " + info.sunsetDate());
+        body.put("version", version);
+        body.put("migrationGuide", migrationGuide);
+        byte[] goneBody;
+        try {
+            goneBody = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize sunset response", e);
+        }
+        Counter gone = Counter.builder(GONE_METRIC)
+                .description("Requests rejected with 410 because their API version reached its sunset date")
+                .tag("version", version)
+                .register(meterRegistry);
+        return new RouteStatus(version, deprecation, sunset, link, sunsetMillis, goneBody, gone);
+    }
+
+    boolean isSunset(long nowMillis) {
+        return nowMillis >= sunsetMillis;
+    }
+}
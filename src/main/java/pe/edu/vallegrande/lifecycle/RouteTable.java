@@ -0,0 +1,181 @@
+package pe.edu.vallegrande.lifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tabla de rutas compilada: asocia plantillas de ruta ({@code /api/users/{id}}) a un valor.
+ * <p>
+ * Es un trie por segmentos. Los hijos literales de cada nodo están en una tabla hash de
+ * direccionamiento abierto con el hash de cada segmento precalculado; al buscar, el hash del segmento
+ * se calcula sobre la propia ruta y se compara con {@link String#regionMatches}, así que una búsqueda
+ * no crea objetos y su coste depende de la longitud de la ruta, no del número de rutas. Las variables
+ * ({@code {id}}, {@code {id:\d+}}) se tratan como comodín de un segmento no vacío; un literal tiene
+ * prioridad sobre el comodín, como en Spring MVC.
+ */
+public final class RouteTable<V> {
+
+    private final Node<V> root;
+
+    private RouteTable(Node<V> root) {
+        this.root = root;
+    }
+
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Valor de la plantilla que coincide con la ruta, o {@code null}.
+     */
+    public V match(String path) {
+        if (path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+        return match(root, path, 1);
+    }
+
+    private static <V> V match(Node<V> node, String path, int from) {
+        int end = path.length();
+        if (from > end) {
+            return node.value;
+        }
+        int to = path.indexOf('/', from);
+        if (to < 0) {
+            to = end;
+        }
+        int length = to - from;
+        Node<V> literal = node.literal(path, from, length);
+        if (literal != null) {
+            V value = match(literal, path, to + 1);
+            if (value != null) {
+                return value;
+            }
+        }
+        if (node.variable != null && length > 0) {
+            return match(node.variable, path, to + 1);
+        }
+        return null;
+    }
+
+    public static final class Builder<V> {
+
+        private final MutableNode<V> root = new MutableNode<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Añade una plantilla; si ya existía, conserva el primer valor.
+         */
+        public Builder<V> add(String template, V value) {
+            if (template.isEmpty() || template.charAt(0) != '/') {
+                throw new IllegalArgumentException("Route template must start with '/': " + template);
+            }
+            MutableNode<V> node = root;
+            int from = 1;
+            while (from <= template.length()) {
+                int to = template.indexOf('/', from);
+                if (to < 0) {
+                    to = template.length();
+                }
+                String segment = template.substring(from, to);
+                node = isVariable(segment) ? node.variable() : node.literal(segment);
+                from = to + 1;
+            }
+            if (node.value == null) {
+                node.value = value;
+            }
+            return this;
+        }
+
+        public RouteTable<V> build() {
+            return new RouteTable<>(root.freeze());
+        }
+
+        private static boolean isVariable(String segment) {
+            return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+        }
+    }
+
+    private static final class MutableNode<V> {
+
+        private final List<String> segments = new ArrayList<>();
+        private final List<MutableNode<V>> children = new ArrayList<>();
+        private MutableNode<V> variable;
+        private V value;
+
+        MutableNode<V> literal(String segment) {
+            int index = segments.indexOf(segment);
+            if (index >= 0) {
+                return children.get(index);
+            }
+            MutableNode<V> child = new MutableNode<>();
+            segments.add(segment);
+            children.add(child);
+            return child;
+        }
+
+        MutableNode<V> variable() {
+            if (variable == null) {
+                variable = new MutableNode<>();
+            }
+            return variable;
+        }
+
+        Node<V> freeze() {
+            // Potencia de dos con al menos la mitad de las posiciones libres
+            int capacity = Integer.highestOneBit(Math.max(1, segments.size()) * 2) * 2;
+            String[] keys = new String[capacity];
+            int[] hashes = new int[capacity];
+            @SuppressWarnings("unchecked")
+            Node<V>[] nodes = new Node[capacity];
+            for (int i = 0; i < segments.size(); i++) {
+                String segment = segments.get(i);
+                int hash = segment.hashCode();
+                int slot = hash & (capacity - 1);
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                keys[slot] = segment;
+                hashes[slot] = hash;
+                nodes[slot] = children.get(i).freeze();
+            }
+            return new Node<>(keys, hashes, nodes, variable == null ? null : variable.freeze(), value);
+        }
+    }
+
+    private static final class Node<V> {
+
+        private final String[] keys;
+        private final int[] hashes;
+        private final Node<V>[] children;
+        private final int mask;
+        private final Node<V> variable;
+        private final V value;
+
+        Node(String[] keys, int[] hashes, Node<V>[] children, Node<V> variable, V value) {
+            this.keys = keys;
+            this.hashes = hashes;
+            this.children = children;
+            this.mask = keys.length - 1;
+            this.variable = variable;
+            this.value = value;
+        }
+
+        Node<V> literal(String path, int from, int length) {
+            // Mismo hash que String#hashCode sobre el segmento, sin extraerlo
+            int hash = 0;
+            for (int i = from, end = from + length; i < end; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+            for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                String key = keys[slot];
+                if (hashes[slot] == hash && key.length() == length && path.regionMatches(from, key, 0, length)) {
+                    return children[slot];
+                }
+            }
+            return null;
+        }
+    }
+}
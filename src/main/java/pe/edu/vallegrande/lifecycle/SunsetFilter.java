@@ -0,0 +1,131 @@
+package pe.edu.vallegrande.lifecycle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import pe.edu.vallegrande.inventory.ApiInventory;
+import pe.edu.vallegrande.inventory.ApiVersionInfo;
+import pe.edu.vallegrande.inventory.DiscoveredEndpoint;
+import pe.edu.vallegrande.inventory.InventoryService;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aplica el ciclo de vida del inventario antes de llegar a Spring MVC.
+ * <p>
+ * Cada petición se busca en una {@link RouteTable} compilada a partir de los endpoints del inventario.
+ * Las rutas de versiones deprecadas reciben las cabeceras {@code Deprecation}, {@code Sunset} y
+ * {@code Link}; pasada la fecha de retirada se responde 410 sin entrar en el controlador (con
+ * {@code app.sunset.enforce=false} solo se añaden las cabeceras). Las rutas actuales pasan sin crear
+ * objetos: una comparación de referencias para saber si el inventario cambió y la búsqueda en la tabla.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SunsetFilter implements Filter {
+
+    /** Contador de peticiones respondidas con 410, etiquetado con {@code version}. */
+    public static final String GONE_METRIC = RouteStatus.GONE_METRIC;
+
+    static final String DEPRECATION_HEADER = "Deprecation";
+    static final String SUNSET_HEADER = "Sunset";
+    static final String LINK_HEADER = "Link";
+
+    private final InventoryService inventoryService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enforce;
+
+    /** Tabla y el inventario del que sale; se reemplazan juntos cuando se publica otro inventario. */
+    private volatile Compiled compiled = new Compiled(null, RouteTable.<RouteStatus>builder().build());
+
+    public SunsetFilter(InventoryService inventoryService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                        @Value("${app.sunset.enforce:true}") boolean enforce) {
+        this.inventoryService = inventoryService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enforce = enforce;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        RouteStatus status = routes().match(path(request));
+        if (status == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (status.deprecation() != null) {
+            response.setHeader(DEPRECATION_HEADER, status.deprecation());
+        }
+        if (status.sunset() != null) {
+            response.setHeader(SUNSET_HEADER, status.sunset());
+        }
+        if (status.link() != null) {
+            response.addHeader(LINK_HEADER, status.link());
+        }
+        if (enforce && status.isSunset(System.currentTimeMillis())) {
+            status.gone().increment();
+            response.setStatus(HttpStatus.GONE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(status.goneBody().length);
+            response.getOutputStream().write(status.goneBody());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    RouteTable<RouteStatus> routes() {
+        ApiInventory inventory = inventoryService.getInventory();
+        Compiled current = compiled;
+        if (current.inventory() != inventory) {
+            current = new Compiled(inventory, compile(inventory));
+            compiled = current;
+        }
+        return current.routes();
+    }
+
+    private RouteTable<RouteStatus> compile(ApiInventory inventory) {
+        String migrationGuide = inventoryService.getDeprecatedEndpoints().migrationGuide();
+        Map<String, RouteStatus> byVersion = new HashMap<>();
+        for (Map.Entry<String, ApiVersionInfo> version : inventory.versions().entrySet()) {
+            RouteStatus status = RouteStatus.of(version.getKey(), version.getValue(), migrationGuide,
+                    objectMapper, meterRegistry);
+            if (status != null) {
+                byVersion.put(version.getKey(), status);
+            }
+        }
+        RouteTable.Builder<RouteStatus> routes = RouteTable.builder();
+        for (DiscoveredEndpoint endpoint : inventory.endpoints()) {
+            RouteStatus status = byVersion.get(endpoint.version());
+            if (status != null) {
+                routes.add(endpoint.path(), status);
+            }
+        }
+        return routes.build();
+    }
+
+    private static String path(HttpServletRequest request) {
+        // Ruta ya decodificada y normalizada por el contenedor, sin el context path
+        String pathInfo = request.getPathInfo();
+        return pathInfo == null ? request.getServletPath() : request.getServletPath() + pathInfo;
+    }
+
+    private record Compiled(ApiInventory inventory, RouteTable<RouteStatus> routes) {
+    }
+}
@@ -0,0 +1,68 @@
+package pe.edu.vallegrande.metrics;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estimador de cardinalidad HyperLogLog sin bloqueos (1024 registros, error típico ~3%).
+ * Se usa para estimar el número de clientes distintos de cada endpoint sin guardar las IPs.
+ */
+public class DistinctCounter {
+
+    private static final int PRECISION = 10;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final AtomicIntegerArray registers = new AtomicIntegerArray(REGISTERS);
+
+    public void offer(String value) {
+        if (value == null) {
+            return;
+        }
+        long hash = mix(value.hashCode());
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        int current = registers.get(index);
+        while (rank > current) {
+            if (registers.compareAndSet(index, current, rank)) {
+                return;
+            }
+            current = registers.get(index);
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < REGISTERS; i++) {
+            int register = registers.get(i);
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            // Corrección para cardinalidades pequeñas (linear counting)
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /** Combina los registros de este contador en {@code target} (unión de conjuntos). */
+    public void mergeInto(DistinctCounter target) {
+        for (int i = 0; i < REGISTERS; i++) {
+            int rank = registers.get(i);
+            int current = target.registers.get(i);
+            while (rank > current && !target.registers.compareAndSet(i, current, rank)) {
+                current = target.registers.get(i);
+            }
+        }
+    }
+
+    /** Finalizador de SplitMix64: reparte los 32 bits del hashCode en 64 bits. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
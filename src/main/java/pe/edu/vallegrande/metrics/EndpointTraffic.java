@@ -0,0 +1,104 @@
+package pe.edu.vallegrande.metrics;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de tráfico de un endpoint del inventario.
+ * Solo usa contadores rayados (LongAdder) y CAS, de modo que registrar una llamada no toma locks.
+ */
+public class EndpointTraffic {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final String method;
+    private final String path;
+    private final String version;
+    private final Timer timer;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final DistinctCounter clients = new DistinctCounter();
+    private volatile long lastSeenMillis;
+
+    // Ventana por minuto: llamadas del minuto en curso y del último minuto completo
+    private final AtomicLong currentMinute = new AtomicLong();
+    private final LongAdder currentMinuteCalls = new LongAdder();
+    private volatile long previousMinuteCalls;
+
+    public EndpointTraffic(String method, String path, String version, Timer timer) {
+        this.method = method;
+        this.path = path;
+        this.version = version;
+        this.timer = timer;
+    }
+
+    public void record(String client, long durationNanos, long nowMillis) {
+        rollMinute(nowMillis / MINUTE_MILLIS);
+        calls.increment();
+        currentMinuteCalls.increment();
+        totalNanos.add(durationNanos);
+        clients.offer(client);
+        lastSeenMillis = nowMillis;
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void rollMinute(long minute) {
+        long current = currentMinute.get();
+        if (minute > current && currentMinute.compareAndSet(current, minute)) {
+            long finished = currentMinuteCalls.sumThenReset();
+            previousMinuteCalls = minute == current + 1 ? finished : 0;
+        }
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    /** Llamadas registradas en el último minuto completo. */
+    public long callsPerMinute(long nowMillis) {
+        long minute = nowMillis / MINUTE_MILLIS;
+        long current = currentMinute.get();
+        if (minute == current) {
+            return previousMinuteCalls;
+        }
+        return minute == current + 1 ? currentMinuteCalls.sum() : 0;
+    }
+
+    /** Última llamada en milisegundos epoch, o 0 si nunca se llamó. */
+    public long lastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    public long distinctClients() {
+        return clients.estimate();
+    }
+
+    public DistinctCounter clients() {
+        return clients;
+    }
+
+    public double meanLatencyMillis() {
+        long count = calls.sum();
+        return count == 0 ? 0 : totalNanos.sum() / (double) count / 1_000_000.0;
+    }
+
+    public Timer timer() {
+        return timer;
+    }
+}
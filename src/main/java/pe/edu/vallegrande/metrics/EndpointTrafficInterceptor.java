@@ -0,0 +1,46 @@
+package pe.edu.vallegrande.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Registra llamadas, latencia y clientes de cada endpoint del inventario
+ */
+@Component
+public class EndpointTrafficInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = EndpointTrafficInterceptor.class.getName() + ".start";
+
+    private final TrafficRegistry trafficRegistry;
+
+    public EndpointTrafficInterceptor(TrafficRegistry trafficRegistry) {
+        this.trafficRegistry = trafficRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // En peticiones asíncronas preHandle se repite al redespachar; se conserva el inicio original
+        if (handler instanceof HandlerMethod && request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        EndpointTraffic traffic = trafficRegistry.forHandler(handlerMethod, request.getMethod(), pattern);
+        if (traffic != null) {
+            traffic.record(request.getRemoteAddr(), System.nanoTime() - start, System.currentTimeMillis());
+        }
+    }
+}
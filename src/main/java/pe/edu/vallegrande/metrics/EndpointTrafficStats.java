@@ -0,0 +1,17 @@
+package pe.edu.vallegrande.metrics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Tráfico observado en un endpoint del inventario
+ */
+@Schema(description = "Traffic observed on an inventory endpoint")
+public record EndpointTrafficStats(
+        @Schema(description = "HTTP method", example = "GET") String method,
+        @Schema(description = "Path template", example = "/api/users") String path,
+        @Schema(description = "Total calls since startup") long calls,
+        @Schema(description = "Calls during the last complete minute") long callsPerMinute,
+        @Schema(description = "Last call (ISO-8601), null if never called") String lastSeen,
+        @Schema(description = "Estimated number of distinct clients") long distinctClients,
+        @Schema(description = "Mean latency in milliseconds") double meanLatencyMs) {
+}
@@ -0,0 +1,154 @@
+package pe.edu.vallegrande.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import pe.edu.vallegrande.inventory.DiscoveredEndpoint;
+import pe.edu.vallegrande.inventory.EndpointDiscovery;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registro del tráfico por endpoint del inventario.
+ * Cada endpoint (handler, método HTTP y patrón, como en el inventario) obtiene sus contadores la
+ * primera vez que se invoca; a partir de ahí registrar una llamada son dos lecturas de mapa y unos pocos
+ * incrementos sin bloqueos. Un handler con varios patrones o métodos tiene un contador por cada uno; si
+ * acepta cualquier método se cuenta como {@value DiscoveredEndpoint#ANY_METHOD}, para que el número de
+ * entradas no dependa de los métodos que envíen los clientes.
+ * Además de la vista por versión, publica un Timer y un Gauge de Micrometer por endpoint.
+ */
+@Component
+public class TrafficRegistry {
+
+    public static final String REQUESTS_METRIC = "api.inventory.requests";
+    public static final String CLIENTS_METRIC = "api.inventory.clients";
+
+    /** Marca los handlers que no pertenecen a la aplicación (springdoc, etc.). */
+    private static final EndpointTraffic IGNORED = new EndpointTraffic("", "", "", null);
+
+    private final MeterRegistry meterRegistry;
+    private final EndpointDiscovery endpointDiscovery;
+    private final ConcurrentMap<Method, HandlerEndpoints> byHandler = new ConcurrentHashMap<>();
+
+    public TrafficRegistry(MeterRegistry meterRegistry, EndpointDiscovery endpointDiscovery) {
+        this.meterRegistry = meterRegistry;
+        this.endpointDiscovery = endpointDiscovery;
+    }
+
+    /**
+     * Contadores del handler, o {@code null} si no es un controlador de la aplicación.
+     */
+    public EndpointTraffic forHandler(HandlerMethod handler, String httpMethod, String pattern) {
+        HandlerEndpoints endpoints = byHandler.get(handler.getMethod());
+        if (endpoints == null) {
+            endpoints = byHandler.computeIfAbsent(handler.getMethod(), m -> HandlerEndpoints.of(handler));
+        }
+        EndpointKey key = new EndpointKey(endpoints.anyMethod ? DiscoveredEndpoint.ANY_METHOD : httpMethod, pattern);
+        EndpointTraffic traffic = endpoints.traffic.get(key);
+        if (traffic == null) {
+            traffic = endpoints.traffic.computeIfAbsent(key, k -> create(handler, k.httpMethod(), k.pattern()));
+        }
+        return traffic == IGNORED ? null : traffic;
+    }
+
+    private EndpointTraffic create(HandlerMethod handler, String httpMethod, String pattern) {
+        Class<?> controller = handler.getBeanType();
+        if (pattern == null || !endpointDiscovery.isApplicationController(controller)) {
+            return IGNORED;
+        }
+        String version = EndpointDiscovery.versionOf(pattern, controller);
+        DiscoveredEndpoint.Zone zone = EndpointDiscovery.zoneOf(controller);
+        String endpoint = httpMethod + " " + pattern;
+        Timer timer = Timer.builder(REQUESTS_METRIC)
+                .description("Requests per inventory endpoint")
+                .tag("version", version)
+                .tag("zone", zone.name())
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        EndpointTraffic traffic = new EndpointTraffic(httpMethod, pattern, version, timer);
+        Gauge.builder(CLIENTS_METRIC, traffic, EndpointTraffic::distinctClients)
+                .description("Estimated distinct clients per inventory endpoint")
+                .tag("version", version)
+                .tag("zone", zone.name())
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return traffic;
+    }
+
+    /**
+     * Vista agregada por versión, ordenada por identificador de versión.
+     */
+    public Map<String, VersionTraffic> report() {
+        long now = System.currentTimeMillis();
+        Map<String, List<EndpointTraffic>> byVersion = new TreeMap<>();
+        for (HandlerEndpoints endpoints : byHandler.values()) {
+            for (EndpointTraffic traffic : endpoints.traffic.values()) {
+                if (traffic != IGNORED) {
+                    byVersion.computeIfAbsent(traffic.version(), v -> new ArrayList<>()).add(traffic);
+                }
+            }
+        }
+        Map<String, VersionTraffic> report = new TreeMap<>();
+        byVersion.forEach((version, endpoints) -> {
+            endpoints.sort(Comparator.comparing(EndpointTraffic::path).thenComparing(EndpointTraffic::method));
+            long calls = 0;
+            long callsPerMinute = 0;
+            long lastSeen = 0;
+            DistinctCounter clients = new DistinctCounter();
+            List<EndpointTrafficStats> stats = new ArrayList<>(endpoints.size());
+            for (EndpointTraffic traffic : endpoints) {
+                calls += traffic.calls();
+                callsPerMinute += traffic.callsPerMinute(now);
+                lastSeen = Math.max(lastSeen, traffic.lastSeenMillis());
+                traffic.clients().mergeInto(clients);
+                stats.add(new EndpointTrafficStats(traffic.method(), traffic.path(), traffic.calls(),
+                        traffic.callsPerMinute(now), format(traffic.lastSeenMillis()),
+                        traffic.distinctClients(), traffic.meanLatencyMillis()));
+            }
+            report.put(version, new VersionTraffic(calls, callsPerMinute, format(lastSeen), clients.estimate(), stats));
+        });
+        return report;
+    }
+
+    private static String format(long epochMillis) {
+        return epochMillis == 0 ? null : Instant.ofEpochMilli(epochMillis).toString();
+    }
+
+    private record EndpointKey(String httpMethod, String pattern) {
+    }
+
+    /** Endpoints de un handler, por método HTTP y patrón. */
+    private static final class HandlerEndpoints {
+
+        final boolean anyMethod;
+        final ConcurrentMap<EndpointKey, EndpointTraffic> traffic = new ConcurrentHashMap<>(4);
+
+        private HandlerEndpoints(boolean anyMethod) {
+            this.anyMethod = anyMethod;
+        }
+
+        static HandlerEndpoints of(HandlerMethod handler) {
+            return new HandlerEndpoints(acceptsAnyMethod(handler.getBeanType())
+                    && acceptsAnyMethod(handler.getMethod()));
+        }
+
+        private static boolean acceptsAnyMethod(AnnotatedElement element) {
+            RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+            return mapping == null || mapping.method().length == 0;
+        }
+    }
+}
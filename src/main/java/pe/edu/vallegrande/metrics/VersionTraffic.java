@@ -0,0 +1,17 @@
+package pe.edu.vallegrande.metrics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Tráfico agregado de una versión de la API
+ */
+@Schema(description = "Traffic aggregated by API version")
+public record VersionTraffic(
+        @Schema(description = "Total calls since startup") long calls,
+        @Schema(description = "Calls during the last complete minute") long callsPerMinute,
+        @Schema(description = "Last call (ISO-8601), null if never called") String lastSeen,
+        @Schema(description = "Estimated number of distinct clients") long distinctClients,
+        @Schema(description = "Traffic per endpoint") List<EndpointTrafficStats> endpoints) {
+}
@@ -0,0 +1,63 @@
+package pe.edu.vallegrande.openapi;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import pe.edu.vallegrande.DemoApi9Application;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Genera el documento OpenAPI durante el build (fase process-classes, ver pom.xml).
+ * Arranca la aplicación en un puerto libre con springdoc activo, descarga /api-docs y
+ * /api-docs.yaml y los deja en el directorio indicado, que Maven empaqueta como recurso
+ * del classpath ({@link PrebuiltOpenApiConfig#RESOURCE_LOCATION}).
+ */
+public final class OpenApiDocumentGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenApiDocumentGenerator.class);
+
+    private OpenApiDocumentGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: OpenApiDocumentGenerator <output-directory>");
+        }
+        Path outputDirectory = Files.createDirectories(Path.of(args[0]));
+        // Como argumentos de línea de comandos, para que prevalezcan sobre application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApi9Application.class)
+                .run("--server.port=0",
+                        "--springdoc.api-docs.enabled=true",
+                        "--springdoc.swagger-ui.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.pe.edu.vallegrande=WARN",
+                        "--logging.level.pe.edu.vallegrande.openapi.OpenApiDocumentGenerator=INFO")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String path = context.getEnvironment().getProperty("springdoc.api-docs.path", "/v3/api-docs");
+            HttpClient client = HttpClient.newHttpClient();
+            fetch(client, "http://localhost:" + port + path, outputDirectory.resolve(PrebuiltOpenApiConfig.JSON_FILE));
+            fetch(client, "http://localhost:" + port + path + ".yaml",
+                    outputDirectory.resolve(PrebuiltOpenApiConfig.YAML_FILE));
+        }
+    }
+
+    private static void fetch(HttpClient client, String url, Path target) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + url + " returned " + response.statusCode());
+        }
+        Files.write(target, response.body());
+        log.info("OpenAPI document written to {} ({} bytes)", target, response.body().length);
+    }
+}
@@ -0,0 +1,90 @@
+package pe.edu.vallegrande.openapi;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import pe.edu.vallegrande.inventory.InventoryDocument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Sirve el documento OpenAPI generado en el build ({@link OpenApiDocumentGenerator}) cuando
+ * springdoc no está activo, es decir, fuera del perfil dev. Los bytes se leen una vez del
+ * classpath y se responden con ETag fuerte, revalidación 304 y variante gzip precomprimida.
+ * Se registra como ruta funcional, fuera del handler mapping de anotaciones, para que no
+ * aparezca en el inventario de endpoints (igual que el /api-docs de springdoc).
+ */
+@Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "false")
+public class PrebuiltOpenApiConfig {
+
+    static final String RESOURCE_LOCATION = "META-INF/openapi/";
+    static final String JSON_FILE = "openapi.json";
+    static final String YAML_FILE = "openapi.yaml";
+    static final MediaType YAML = MediaType.parseMediaType("application/vnd.oai.openapi");
+
+    private static final Logger log = LoggerFactory.getLogger(PrebuiltOpenApiConfig.class);
+    private static final String CACHE_CONTROL = "public, max-age=60, must-revalidate";
+
+    @Bean
+    public RouterFunction<ServerResponse> prebuiltOpenApiRoutes(@Value("${springdoc.api-docs.path}") String path) {
+        InventoryDocument json = load(JSON_FILE);
+        InventoryDocument yaml = load(YAML_FILE);
+        return RouterFunctions.route()
+                .GET(path, request -> serve(json, MediaType.APPLICATION_JSON, request))
+                .GET(path + ".yaml", request -> serve(yaml, YAML, request))
+                .build();
+    }
+
+    private static InventoryDocument load(String file) {
+        ClassPathResource resource = new ClassPathResource(RESOURCE_LOCATION + file);
+        if (!resource.exists()) {
+            log.warn("Prebuilt OpenAPI document {} not found; run the Maven build (process-classes) "
+                    + "or start with the dev profile to use springdoc at runtime", resource.getPath());
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return InventoryDocument.of(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ServerResponse serve(InventoryDocument document, MediaType contentType, ServerRequest request) {
+        if (document == null) {
+            return ServerResponse.notFound().build();
+        }
+        String acceptEncoding = request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = document.gzipBody() != null && InventoryDocument.acceptsGzip(acceptEncoding);
+        String etag = gzip ? document.gzipEtag() : document.etag();
+        if (document.matches(request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ServerResponse.BodyBuilder response = ServerResponse.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(contentType);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(document.gzipBody());
+        }
+        return response.body(document.body());
+    }
+}
@@ -0,0 +1,25 @@
+package pe.edu.vallegrande.ratelimit;
+
+/**
+ * Presupuesto aplicado a un estado del ciclo de vida.
+ *
+ * @param permitsPerSecond ritmo sostenido por cliente y endpoint
+ * @param burst            peticiones que se admiten seguidas con el cubo lleno
+ * @param shedInFlight     peticiones en curso (de toda la aplicación) a partir de las cuales se descarta
+ *                         el tráfico de este estado con 503
+ */
+public record LimitPolicy(double permitsPerSecond, int burst, int shedInFlight) {
+
+    /** Sin límite ni descarte: versiones actuales. */
+    public static final LimitPolicy UNLIMITED = new LimitPolicy(0, 0, Integer.MAX_VALUE);
+
+    public LimitPolicy {
+        if (permitsPerSecond < 0 || burst < 0 || shedInFlight < 1) {
+            throw new IllegalArgumentException("Invalid rate limit policy");
+        }
+    }
+
+    public boolean isLimited() {
+        return permitsPerSecond > 0;
+    }
+}
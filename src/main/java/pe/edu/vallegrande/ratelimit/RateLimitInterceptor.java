@@ -0,0 +1,77 @@
+package pe.edu.vallegrande.ratelimit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import pe.edu.vallegrande.inventory.InventoryService;
+import pe.edu.vallegrande.metrics.EndpointTraffic;
+import pe.edu.vallegrande.metrics.TrafficRegistry;
+
+import java.time.LocalDate;
+
+/**
+ * Aplica {@link RateLimiter} antes de ejecutar el handler: 429 si el cliente agotó el presupuesto
+ * del endpoint y 503 si la aplicación está sobrecargada, ambos con Retry-After.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".admitted";
+
+    private final RateLimiter rateLimiter;
+    private final TrafficRegistry trafficRegistry;
+    private final InventoryService inventoryService;
+    private final boolean enabled;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, TrafficRegistry trafficRegistry,
+                                InventoryService inventoryService,
+                                @Value("${app.ratelimit.enabled:true}") boolean enabled) {
+        this.rateLimiter = rateLimiter;
+        this.trafficRegistry = trafficRegistry;
+        this.inventoryService = inventoryService;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Al redespachar una petición asíncrona ya se decidió en el primer despacho
+        if (!enabled || !(handler instanceof HandlerMethod handlerMethod)
+                || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // El registro de tráfico ya identifica cada handler con su endpoint y versión del inventario
+        EndpointTraffic endpoint = trafficRegistry.forHandler(handlerMethod, request.getMethod(), pattern);
+        if (endpoint == null) {
+            return true;
+        }
+        String status = inventoryService.lifecycleStatus(endpoint.version(), LocalDate.now());
+        RateLimiter.Admission admission = rateLimiter.admit(status, request.getRemoteAddr(), endpoint);
+        if (admission.admitted()) {
+            request.setAttribute(ADMITTED_ATTRIBUTE, Boolean.TRUE);
+            return true;
+        }
+        HttpStatus rejection = admission.outcome() == RateLimiter.Outcome.SHED
+                ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.TOO_MANY_REQUESTS;
+        response.setStatus(rejection.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(admission.retryAfterSeconds()));
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (request.getAttribute(ADMITTED_ATTRIBUTE) != null) {
+            request.removeAttribute(ADMITTED_ATTRIBUTE);
+            rateLimiter.release();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package pe.edu.vallegrande.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pe.edu.vallegrande.inventory.InventoryService;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador en proceso guiado por el estado de cada versión en el inventario.
+ * Las versiones actuales no se limitan; las obsoletas y retiradas tienen un cubo de tokens
+ * por cliente y endpoint y, además, se descartan con 503 cuando la aplicación ya tiene demasiadas
+ * peticiones en curso, de modo que la sobrecarga la absorbe primero el tráfico legacy y no V2.
+ * <p>
+ * Los cubos viven en una caché Caffeine acotada a {@value #MAX_BUCKETS} entradas que descarta los que
+ * llevan sin usarse el tiempo de rellenarse por completo: un cubo lleno equivale a uno nuevo, así que
+ * expirarlo no cambia ninguna decisión. La limpieza la hace Caffeine de forma amortizada, sin recorrer
+ * todos los cubos al crear uno.
+ */
+@Component
+public class RateLimiter {
+
+    public static final String REJECTED_METRIC = "api.ratelimit.rejected";
+    public static final String IN_FLIGHT_METRIC = "api.ratelimit.in.flight";
+
+    /**
+     * Máximo de cubos (clientes y endpoints) en memoria. Con más claves activas se expulsan cubos aún no
+     * llenos y esos clientes vuelven a empezar con la ráfaga completa.
+     */
+    static final int MAX_BUCKETS = 100_000;
+
+    public enum Outcome { ADMITTED, RATE_LIMITED, SHED }
+
+    /**
+     * Resultado de {@link #admit}. Solo las peticiones admitidas deben llamar a {@link #release()}.
+     */
+    public record Admission(Outcome outcome, long retryAfterSeconds) {
+
+        static final Admission ADMITTED = new Admission(Outcome.ADMITTED, 0);
+
+        public boolean admitted() {
+            return outcome == Outcome.ADMITTED;
+        }
+    }
+
+    private record BucketKey(String status, String client, Object endpoint) {
+    }
+
+    private final Map<String, LimitPolicy> policies;
+    private final LongSupplier nanoClock;
+    private final MeterRegistry meterRegistry;
+    private final long shedRetryAfterSeconds;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Autowired
+    public RateLimiter(@Value("${app.ratelimit.deprecated.rate:20}") double deprecatedRate,
+                       @Value("${app.ratelimit.deprecated.burst:40}") int deprecatedBurst,
+                       @Value("${app.ratelimit.deprecated.shed-in-flight:128}") int deprecatedShedInFlight,
+                       @Value("${app.ratelimit.sunset.rate:5}") double sunsetRate,
+                       @Value("${app.ratelimit.sunset.burst:10}") int sunsetBurst,
+                       @Value("${app.ratelimit.sunset.shed-in-flight:32}") int sunsetShedInFlight,
+                       @Value("${app.ratelimit.shed-retry-after:1}") long shedRetryAfterSeconds,
+                       MeterRegistry meterRegistry) {
+        this(policies(new LimitPolicy(deprecatedRate, deprecatedBurst, deprecatedShedInFlight),
+                        new LimitPolicy(sunsetRate, sunsetBurst, sunsetShedInFlight)),
+                shedRetryAfterSeconds, System::nanoTime, meterRegistry);
+    }
+
+    RateLimiter(Map<String, LimitPolicy> policies, long shedRetryAfterSeconds, LongSupplier nanoClock,
+                MeterRegistry meterRegistry) {
+        this.policies = Map.copyOf(policies);
+        this.shedRetryAfterSeconds = shedRetryAfterSeconds;
+        this.nanoClock = nanoClock;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(MAX_BUCKETS)
+                .expireAfterAccess(refillNanos(this.policies.values()), TimeUnit.NANOSECONDS)
+                .ticker(nanoClock::getAsLong)
+                .build();
+        Gauge.builder(IN_FLIGHT_METRIC, inFlight, AtomicInteger::get)
+                .description("Requests currently being handled, used for load shedding")
+                .register(meterRegistry);
+    }
+
+    /** Obsoletas y no inventariadas comparten presupuesto; las retiradas tienen el más estricto. */
+    static Map<String, LimitPolicy> policies(LimitPolicy deprecated, LimitPolicy sunset) {
+        return Map.of(
+                InventoryService.STATUS_CURRENT, LimitPolicy.UNLIMITED,
+                InventoryService.STATUS_DEPRECATED, deprecated,
+                InventoryService.STATUS_UNKNOWN, deprecated,
+                InventoryService.STATUS_SUNSET, sunset);
+    }
+
+    public LimitPolicy policyFor(String status) {
+        return policies.getOrDefault(status, LimitPolicy.UNLIMITED);
+    }
+
+    /**
+     * Decide si se atiende una petición del cliente al endpoint, según el estado de su versión.
+     * {@code endpoint} es cualquier clave estable por endpoint (se compara con equals).
+     */
+    public Admission admit(String status, String client, Object endpoint) {
+        LimitPolicy policy = policyFor(status);
+        if (inFlight.get() >= policy.shedInFlight()) {
+            reject(status, Outcome.SHED);
+            return new Admission(Outcome.SHED, shedRetryAfterSeconds);
+        }
+        if (policy.isLimited()) {
+            long now = nanoClock.getAsLong();
+            TokenBucket bucket = bucketFor(new BucketKey(status, client, endpoint), policy, now);
+            long waitNanos = bucket.tryAcquire(now);
+            if (waitNanos > 0) {
+                reject(status, Outcome.RATE_LIMITED);
+                return new Admission(Outcome.RATE_LIMITED, retryAfterSeconds(waitNanos));
+            }
+        }
+        inFlight.incrementAndGet();
+        return Admission.ADMITTED;
+    }
+
+    /** Marca como terminada una petición admitida. */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private TokenBucket bucketFor(BucketKey key, LimitPolicy policy, long now) {
+        return buckets.get(key, k -> new TokenBucket(policy, now));
+    }
+
+    /**
+     * Tiempo sin uso tras el que cualquier cubo está lleno: la ráfaga completa al ritmo más lento.
+     * Después de un acceso el TAT adelanta como mucho {@code burst} intervalos al instante actual.
+     */
+    private static long refillNanos(Iterable<LimitPolicy> policies) {
+        long refill = TimeUnit.SECONDS.toNanos(1);
+        for (LimitPolicy policy : policies) {
+            if (policy.isLimited()) {
+                double seconds = Math.max(policy.burst(), 1) / policy.permitsPerSecond();
+                refill = Math.max(refill, (long) Math.ceil(seconds * TimeUnit.SECONDS.toNanos(1)));
+            }
+        }
+        return refill;
+    }
+
+    int bucketCount() {
+        buckets.cleanUp();
+        return (int) buckets.estimatedSize();
+    }
+
+    private void reject(String status, Outcome outcome) {
+        meterRegistry.counter(REJECTED_METRIC, "status", status, "reason", outcome.name()).increment();
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,41 @@
+package pe.edu.vallegrande.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubo de tokens sin bloqueos, implementado como GCRA (generic cell rate algorithm).
+ * En lugar de tokens guarda un único instante, el TAT (theoretical arrival time): admitir una
+ * petición es un compare-and-set que lo adelanta un intervalo de emisión. Equivale a un cubo de
+ * capacidad {@code burst} que se rellena a {@code permitsPerSecond}.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(LimitPolicy policy, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1, Math.round(1_000_000_000L / policy.permitsPerSecond()));
+        this.toleranceNanos = emissionIntervalNanos * Math.max(policy.burst() - 1, 0);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Intenta consumir un token. Devuelve 0 si se admite o, si no, los nanosegundos que hay
+     * que esperar hasta que haya uno disponible.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = tat - nowNanos > 0 ? tat : nowNanos;
+            // Se admite mientras el TAT no adelante al instante actual más de la tolerancia de ráfaga
+            long waitNanos = start - nowNanos - toleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package pe.edu.vallegrande.repository;
+
+import pe.edu.vallegrande.model.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Almacenamiento columnar compacto.
+ * Por cada id solo se guarda un long primitivo (la ubicación del registro); username, email y
+ * password se codifican en UTF-8 dentro de páginas de bytes de 1 MB, en heap o fuera de él
+ * ({@link ByteBuffer#allocateDirect}). Los objetos {@link User} se materializan solo al leerlos.
+ * <p>
+ * Formato del registro: para cada campo, longitud u16 (0xFFFF = null) seguida de los bytes.
+ * Las escrituras se serializan con un lock (no synchronized, para no fijar hilos virtuales);
+ * las lecturas no bloquean: la escritura volátil de la ubicación publica los bytes del registro.
+ * Reemplazar un usuario deja su registro anterior como espacio no reutilizado.
+ */
+class ColumnarUserStorage implements UserStorage {
+
+    static final int PAGE_SIZE = 1 << 20;
+    static final int MAX_PAGES = 1 << 16;
+    static final int MAX_FIELD_BYTES = 0xFFFE;
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    private final boolean offHeap;
+    private final AtomicReferenceArray<AtomicLongArray> locations = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private final AtomicReferenceArray<ByteBuffer> pages = new AtomicReferenceArray<>(MAX_PAGES);
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Protegidos por writeLock
+    private int currentPage = -1;
+    private int pageOffset = PAGE_SIZE;
+
+    ColumnarUserStorage(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    @Override
+    public User put(long id, User user) {
+        byte[] username = encode(user.getUsername());
+        byte[] email = encode(user.getEmail());
+        byte[] password = encode(user.getPassword());
+        int length = 6 + size(username) + size(email) + size(password);
+
+        long location;
+        writeLock.lock();
+        try {
+            if (pageOffset + length > PAGE_SIZE) {
+                newPage();
+            }
+            ByteBuffer page = pages.get(currentPage);
+            int offset = pageOffset;
+            offset = write(page, offset, username);
+            offset = write(page, offset, email);
+            write(page, offset, password);
+            location = location(currentPage, pageOffset);
+            pageOffset += length;
+        } finally {
+            writeLock.unlock();
+        }
+        long previous = locationsFor(id, true).getAndSet(UserStorage.slot(id), location);
+        return previous == 0 ? null : read(id, previous);
+    }
+
+    @Override
+    public User get(long id) {
+        AtomicLongArray chunk = locationsFor(id, false);
+        if (chunk == null) {
+            return null;
+        }
+        long location = chunk.get(UserStorage.slot(id));
+        return location == 0 ? null : read(id, location);
+    }
+
+    @Override
+    public long scan(long afterId, long maxId, int limit, Consumer<? super User> action) {
+        long lastId = 0;
+        int delivered = 0;
+        for (long id = Math.max(afterId, 0) + 1; id <= maxId && delivered < limit; id++) {
+            AtomicLongArray chunk = locationsFor(id, false);
+            if (chunk == null) {
+                id |= CHUNK_MASK;
+                continue;
+            }
+            long location = chunk.get(UserStorage.slot(id));
+            if (location != 0) {
+                action.accept(read(id, location));
+                lastId = id;
+                delivered++;
+            }
+        }
+        return lastId;
+    }
+
+    @Override
+    public UserIndex newIndex(Function<User, String> field) {
+        return new CompactUserIndex(this, field);
+    }
+
+    private void newPage() {
+        if (currentPage + 1 >= MAX_PAGES) {
+            throw new IllegalStateException("Columnar user storage is full");
+        }
+        currentPage++;
+        pages.set(currentPage, offHeap ? ByteBuffer.allocateDirect(PAGE_SIZE) : ByteBuffer.allocate(PAGE_SIZE));
+        pageOffset = 0;
+    }
+
+    private User read(long id, long location) {
+        ByteBuffer page = pages.get(pageOf(location));
+        int offset = offsetOf(location);
+        int usernameLength = length(page, offset);
+        String username = decode(page, offset + 2, usernameLength);
+        offset += 2 + Math.max(usernameLength, 0);
+        int emailLength = length(page, offset);
+        String email = decode(page, offset + 2, emailLength);
+        offset += 2 + Math.max(emailLength, 0);
+        String password = decode(page, offset + 2, length(page, offset));
+        return new User(id, username, email, password);
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_FIELD_BYTES) {
+            throw new IllegalArgumentException("User field exceeds " + MAX_FIELD_BYTES + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int size(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static int write(ByteBuffer page, int offset, byte[] bytes) {
+        page.putShort(offset, (short) (bytes == null ? NULL_LENGTH : bytes.length));
+        if (bytes == null) {
+            return offset + 2;
+        }
+        page.put(offset + 2, bytes);
+        return offset + 2 + bytes.length;
+    }
+
+    /** Longitud del campo, o -1 si es null. */
+    private static int length(ByteBuffer page, int offset) {
+        int length = Short.toUnsignedInt(page.getShort(offset));
+        return length == NULL_LENGTH ? -1 : length;
+    }
+
+    private static String decode(ByteBuffer page, int offset, int length) {
+        if (length < 0) {
+            return null;
+        }
+        if (page.hasArray()) {
+            return new String(page.array(), page.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        page.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // La página se guarda +1 para que la ubicación 0 signifique "vacío"
+    private static long location(int page, int offset) {
+        return ((long) (page + 1) << 32) | offset;
+    }
+
+    private static int pageOf(long location) {
+        return (int) (location >>> 32) - 1;
+    }
+
+    private static int offsetOf(long location) {
+        return (int) location;
+    }
+
+    private AtomicLongArray locationsFor(long id, boolean create) {
+        int index = UserStorage.chunkIndex(id);
+        AtomicLongArray chunk = locations.get(index);
+        if (chunk == null && create) {
+            locations.compareAndSet(index, null, new AtomicLongArray(CHUNK_SIZE));
+            chunk = locations.get(index);
+        }
+        return chunk;
+    }
+}
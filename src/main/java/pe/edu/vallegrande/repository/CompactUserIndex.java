@@ -0,0 +1,147 @@
+package pe.edu.vallegrande.repository;
+
+import pe.edu.vallegrande.model.User;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Índice secundario compacto para el almacenamiento columnar.
+ * Tabla de direccionamiento abierto que solo guarda ids (long primitivos); la clave no se
+ * retiene, se verifica leyendo el registro del almacenamiento. Unos 16 bytes por entrada
+ * frente a los nodos, Long y String de un ConcurrentHashMap.
+ * Lecturas sin bloqueo; escrituras y redimensionado bajo un ReentrantLock.
+ */
+class CompactUserIndex implements UserIndex {
+
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final UserStorage storage;
+    private final Function<User, String> field;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile AtomicLongArray table = new AtomicLongArray(INITIAL_CAPACITY);
+    // Protegidos por lock: entradas vivas y posiciones ocupadas (vivas + lápidas)
+    private int live;
+    private int occupied;
+
+    CompactUserIndex(UserStorage storage, Function<User, String> field) {
+        this.storage = storage;
+        this.field = field;
+    }
+
+    @Override
+    public void put(String key, long id) {
+        lock.lock();
+        try {
+            if ((occupied + 1) * 2 > table.length()) {
+                rehash();
+            }
+            AtomicLongArray current = table;
+            int mask = current.length() - 1;
+            int free = -1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                long candidate = current.get(i);
+                if (candidate == EMPTY) {
+                    if (free < 0) {
+                        free = i;
+                        occupied++;
+                    }
+                    current.set(free, id);
+                    live++;
+                    return;
+                }
+                if (candidate == TOMBSTONE) {
+                    if (free < 0) {
+                        free = i;
+                    }
+                } else if (candidate == id || matches(candidate, key)) {
+                    current.set(i, id);
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(String key, long id) {
+        lock.lock();
+        try {
+            AtomicLongArray current = table;
+            int mask = current.length() - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                long candidate = current.get(i);
+                if (candidate == EMPTY) {
+                    return;
+                }
+                if (candidate == id) {
+                    current.set(i, TOMBSTONE);
+                    live--;
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long find(String key) {
+        AtomicLongArray current = table;
+        int mask = current.length() - 1;
+        for (int i = hash(key) & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+            long candidate = current.get(i);
+            if (candidate == EMPTY) {
+                return 0;
+            }
+            if (candidate != TOMBSTONE && matches(candidate, key)) {
+                return candidate;
+            }
+        }
+        return 0;
+    }
+
+    private boolean matches(long id, String key) {
+        User user = storage.get(id);
+        return user != null && key.equals(field.apply(user));
+    }
+
+    private void rehash() {
+        AtomicLongArray old = table;
+        // Si sobran lápidas basta con reconstruir al mismo tamaño
+        int capacity = (live + 1) * 4 > old.length() ? old.length() * 2 : old.length();
+        AtomicLongArray rebuilt = new AtomicLongArray(capacity);
+        int mask = capacity - 1;
+        int kept = 0;
+        for (int i = 0; i < old.length(); i++) {
+            long id = old.get(i);
+            if (id == EMPTY || id == TOMBSTONE) {
+                continue;
+            }
+            User user = storage.get(id);
+            String key = user == null ? null : field.apply(user);
+            if (key == null) {
+                continue;
+            }
+            int j = hash(key) & mask;
+            while (rebuilt.get(j) != EMPTY) {
+                j = (j + 1) & mask;
+            }
+            rebuilt.set(j, id);
+            kept++;
+        }
+        table = rebuilt;
+        live = kept;
+        occupied = kept;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,408 @@
+package pe.edu.vallegrande.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pe.edu.vallegrande.model.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead log de usuarios en segmentos {@code users-<generación>.wal} con snapshots compactados
+ * {@code users-<generación>.snapshot}.
+ * <p>
+ * Group commit: {@link #append} solo copia el registro en un buffer en memoria. El primer hilo que
+ * llama a {@link #awaitDurable} escribe todo lo acumulado con {@link FileChannel#write} y hace un único
+ * {@code force}; los que llegan mientras tanto esperan en el lock y, en la siguiente vuelta, un solo
+ * fsync confirma a todos. Bajo carga concurrente el coste de sincronizar se reparte entre muchas escrituras.
+ * <p>
+ * Checkpoint: se cambia a un segmento nuevo G, se vuelca el repositorio a un snapshot G (mapeado en
+ * memoria) y se borran los segmentos y snapshots anteriores. Como el repositorio publica cada usuario
+ * antes de registrarlo, todo lo escrito en segmentos anteriores a G ya es visible al recorrerlo.
+ * Al arrancar se carga el último snapshot y se reaplican los segmentos desde su generación; un registro
+ * final incompleto (caída a mitad de escritura) se descarta y el segmento se recorta.
+ * <p>
+ * Si una escritura o un fsync fallan, el journal queda en estado fallido: tras un fsync fallido no se sabe
+ * qué llegó al disco, así que {@link #awaitDurable} lanza excepción desde entonces y ninguna escritura
+ * posterior se confirma. Los bytes no escritos se conservan en el buffer pendiente.
+ */
+final class FileUserJournal implements UserJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(FileUserJournal.class);
+
+    static final String WAL_SUFFIX = ".wal";
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String PREFIX = "users-";
+    private static final int INITIAL_BUFFER = 64 << 10;
+
+    private final Path directory;
+    private final Duration snapshotInterval;
+    private final SegmentOpener segmentOpener;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final AtomicLong syncs = new AtomicLong();
+
+    // Protegidos por appendLock
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER);
+    private long appended;
+
+    // Protegidos por syncLock
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER);
+    private FileChannel segment;
+    private long generation;
+
+    private volatile long durable;
+    private volatile IOException failure;
+
+    // Protegido por checkpointLock; -1 fuerza el primer checkpoint si se reaplicó algún segmento
+    private long checkpointed;
+
+    private UserRepository repository;
+    private ScheduledExecutorService scheduler;
+
+    FileUserJournal(Path directory, Duration snapshotInterval) {
+        this(directory, snapshotInterval, file -> FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    FileUserJournal(Path directory, Duration snapshotInterval, SegmentOpener segmentOpener) {
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        this.segmentOpener = segmentOpener;
+    }
+
+    @Override
+    public void open(UserRepository repository) {
+        this.repository = repository;
+        long startNanos = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            for (long abandoned : generations(SNAPSHOT_SUFFIX + ".tmp")) {
+                Files.deleteIfExists(file(abandoned, SNAPSHOT_SUFFIX + ".tmp"));
+            }
+            long snapshotGeneration = latest(SNAPSHOT_SUFFIX);
+            long restored = 0;
+            if (snapshotGeneration > 0) {
+                restored = UserRecordFile.readSnapshot(file(snapshotGeneration, SNAPSHOT_SUFFIX), repository::restore);
+            }
+            long lastGeneration = snapshotGeneration;
+            long replayed = 0;
+            for (long segmentGeneration : generations(WAL_SUFFIX)) {
+                if (segmentGeneration >= snapshotGeneration) {
+                    replayed += replay(file(segmentGeneration, WAL_SUFFIX), repository);
+                }
+                lastGeneration = Math.max(lastGeneration, segmentGeneration);
+            }
+            checkpointed = replayed > 0 ? -1 : 0;
+            generation = lastGeneration + 1;
+            segment = openSegment(generation);
+            log.info("Recovered {} users from snapshot and {} WAL records in {} ms ({})", restored, replayed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover users from " + directory, e);
+        }
+        if (!snapshotInterval.isZero() && !snapshotInterval.isNegative()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "user-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = snapshotInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::checkpointQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public long append(User user) {
+        byte[] frame = UserRecordFile.encode(user);
+        appendLock.lock();
+        try {
+            if (pending.remaining() < frame.length) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + frame.length));
+                pending.flip();
+                larger.put(pending);
+                pending = larger;
+            }
+            pending.put(frame);
+            return ++appended;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        checkNotFailed();
+        if (sequence <= durable) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            checkNotFailed();
+            // Otro hilo pudo sincronizar este registro mientras se esperaba el lock
+            if (sequence > durable) {
+                flush();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Escribe un snapshot compactado y descarta los segmentos que cubre. No hace nada si no hubo
+     * escrituras desde el anterior.
+     */
+    void checkpoint() throws IOException {
+        checkpointLock.lock();
+        try {
+            long sequence;
+            long snapshotGeneration;
+            syncLock.lock();
+            try {
+                if (currentSequence() == checkpointed) {
+                    return;
+                }
+                flush();
+                sequence = durable;
+                segment.close();
+                snapshotGeneration = ++generation;
+                segment = openSegment(snapshotGeneration);
+            } finally {
+                syncLock.unlock();
+            }
+            long startNanos = System.nanoTime();
+            Path temporary = file(snapshotGeneration, SNAPSHOT_SUFFIX + ".tmp");
+            long count;
+            try (UserRecordFile.SnapshotWriter writer = new UserRecordFile.SnapshotWriter(temporary)) {
+                repository.forEach(writer::write);
+                writer.finish();
+                count = writer.count();
+            }
+            Files.move(temporary, file(snapshotGeneration, SNAPSHOT_SUFFIX),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+            for (long old : generations(SNAPSHOT_SUFFIX)) {
+                if (old < snapshotGeneration) {
+                    Files.deleteIfExists(file(old, SNAPSHOT_SUFFIX));
+                }
+            }
+            for (long old : generations(WAL_SUFFIX)) {
+                if (old < snapshotGeneration) {
+                    Files.deleteIfExists(file(old, WAL_SUFFIX));
+                }
+            }
+            checkpointed = sequence;
+            log.debug("User snapshot {} written: {} users in {} ms", snapshotGeneration, count,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    /** Número de fsync realizados; con group commit es menor que el de escrituras. */
+    long syncCount() {
+        return syncs.get();
+    }
+
+    /**
+     * Detiene los checkpoints periódicos, escribe un snapshot final (el siguiente arranque no necesita
+     * reaplicar el WAL) y cierra el segmento actual.
+     */
+    @Override
+    public void close() {
+        if (segment == null) {
+            return;
+        }
+        if (scheduler != null) {
+            // Sin interrumpir: una interrupción cerraría el FileChannel en uso por el checkpoint en curso
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot write final user snapshot", e);
+        }
+        syncLock.lock();
+        try {
+            if (failure == null) {
+                flush();
+            }
+            segment.close();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Cannot close user WAL segment", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** {@code true} si una escritura o un fsync fallaron y el journal ya no confirma escrituras. */
+    boolean failed() {
+        return failure != null;
+    }
+
+    private void checkNotFailed() {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new UncheckedIOException("User WAL failed, writes can no longer be made durable", cause);
+        }
+    }
+
+    // Requiere syncLock
+    private void flush() {
+        checkNotFailed();
+        ByteBuffer batch;
+        long target;
+        appendLock.lock();
+        try {
+            batch = pending;
+            pending = spare;
+            target = appended;
+        } finally {
+            appendLock.unlock();
+        }
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) {
+                segment.write(batch);
+            }
+            segment.force(false);
+        } catch (IOException e) {
+            failure = e;
+            restore(batch);
+            log.error("User WAL write failed, further writes will be rejected", e);
+            throw new UncheckedIOException("Cannot write user WAL", e);
+        }
+        batch.clear();
+        spare = batch;
+        durable = target;
+        syncs.incrementAndGet();
+    }
+
+    /**
+     * Devuelve a {@code pending} los bytes de {@code batch} que no se escribieron, delante de lo que se
+     * añadió mientras tanto, y deja {@code spare} apuntando a un buffer distinto.
+     */
+    private void restore(ByteBuffer batch) {
+        appendLock.lock();
+        try {
+            batch.compact();
+            ByteBuffer appendedMeanwhile = pending;
+            appendedMeanwhile.flip();
+            if (batch.remaining() < appendedMeanwhile.remaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(batch.position() + appendedMeanwhile.remaining());
+                batch.flip();
+                larger.put(batch);
+                batch = larger;
+            }
+            batch.put(appendedMeanwhile);
+            appendedMeanwhile.clear();
+            pending = batch;
+            spare = appendedMeanwhile;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private long currentSequence() {
+        appendLock.lock();
+        try {
+            return appended;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            log.warn("User snapshot failed", e);
+        }
+    }
+
+    private static long replay(Path file, UserRepository repository) throws IOException {
+        long[] records = new long[1];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long end = UserRecordFile.read(channel, 0, size, user -> {
+                repository.restore(user);
+                records[0]++;
+            });
+            if (end < size) {
+                log.warn("Discarding {} bytes of incomplete records at the end of {}", size - end, file);
+                channel.truncate(end);
+                channel.force(true);
+            }
+        }
+        return records[0];
+    }
+
+    private FileChannel openSegment(long segmentGeneration) throws IOException {
+        FileChannel channel = segmentOpener.open(file(segmentGeneration, WAL_SUFFIX));
+        syncDirectory();
+        return channel;
+    }
+
+    /** Sincroniza el directorio para que las altas y renombrados de ficheros sobrevivan a una caída. */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // No todas las plataformas permiten abrir un directorio
+        }
+    }
+
+    /** Abre un segmento para añadir registros; los tests lo sustituyen para simular fallos de disco. */
+    @FunctionalInterface
+    interface SegmentOpener {
+
+        FileChannel open(Path file) throws IOException;
+    }
+
+    private Path file(long fileGeneration, String suffix) {
+        return directory.resolve(PREFIX + String.format("%020d", fileGeneration) + suffix);
+    }
+
+    private long latest(String suffix) throws IOException {
+        List<Long> generations = generations(suffix);
+        return generations.isEmpty() ? 0 : generations.get(generations.size() - 1);
+    }
+
+    private List<Long> generations(String suffix) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(suffix))
+                    .forEach(name -> generations.add(
+                            Long.parseLong(name.substring(PREFIX.length(), name.length() - suffix.length()))));
+        }
+        generations.sort(null);
+        return generations;
+    }
+}
@@ -0,0 +1,28 @@
+package pe.edu.vallegrande.repository;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Índice secundario sobre ConcurrentHashMap; las claves son los mismos String que guarda el User en heap.
+ */
+class HashUserIndex implements UserIndex {
+
+    private final ConcurrentMap<String, Long> ids = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String key, long id) {
+        ids.put(key, id);
+    }
+
+    @Override
+    public void remove(String key, long id) {
+        ids.remove(key, id);
+    }
+
+    @Override
+    public long find(String key) {
+        Long id = ids.get(key);
+        return id == null ? 0 : id;
+    }
+}
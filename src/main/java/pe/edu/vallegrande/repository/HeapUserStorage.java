@@ -0,0 +1,56 @@
+package pe.edu.vallegrande.repository;
+
+import pe.edu.vallegrande.model.User;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Almacenamiento en heap: un objeto {@link User} por posición del directorio de bloques.
+ */
+class HeapUserStorage implements UserStorage {
+
+    private final AtomicReferenceArray<AtomicReferenceArray<User>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+
+    @Override
+    public User put(long id, User user) {
+        return chunkFor(id, true).getAndSet(UserStorage.slot(id), user);
+    }
+
+    @Override
+    public User get(long id) {
+        AtomicReferenceArray<User> chunk = chunkFor(id, false);
+        return chunk == null ? null : chunk.get(UserStorage.slot(id));
+    }
+
+    @Override
+    public long scan(long afterId, long maxId, int limit, Consumer<? super User> action) {
+        long lastId = 0;
+        int delivered = 0;
+        for (long id = Math.max(afterId, 0) + 1; id <= maxId && delivered < limit; id++) {
+            AtomicReferenceArray<User> chunk = chunkFor(id, false);
+            if (chunk == null) {
+                // Bloque aún no creado: saltar al inicio del siguiente
+                id |= CHUNK_MASK;
+                continue;
+            }
+            User user = chunk.get(UserStorage.slot(id));
+            if (user != null) {
+                action.accept(user);
+                lastId = id;
+                delivered++;
+            }
+        }
+        return lastId;
+    }
+
+    private AtomicReferenceArray<User> chunkFor(long id, boolean create) {
+        int index = UserStorage.chunkIndex(id);
+        AtomicReferenceArray<User> chunk = chunks.get(index);
+        if (chunk == null && create) {
+            chunks.compareAndSet(index, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+}
@@ -0,0 +1,110 @@
+package pe.edu.vallegrande.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import pe.edu.vallegrande.model.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+
+/**
+ * Adaptador reactivo de {@link UserRepository} para la API v3.
+ * <p>
+ * Los recorridos son publicadores en frío guiados por la demanda: cada elemento se genera cuando el
+ * suscriptor lo pide y el repositorio se lee por tramos de {@value #CHUNK} usuarios con el cursor por id,
+ * así que un cliente lento nunca tiene más de un tramo retenido en memoria. Las lecturas no bloquean
+ * (el almacenamiento es en memoria y sin locks); las escrituras pueden esperar al fsync del WAL y se
+ * ejecutan en {@link Schedulers#boundedElastic()}.
+ */
+@Repository
+public class ReactiveUserRepository {
+
+    static final int CHUNK = 256;
+
+    private final UserRepository userRepository;
+    private final Scheduler writeScheduler;
+
+    @Autowired
+    public ReactiveUserRepository(UserRepository userRepository) {
+        this(userRepository, Schedulers.boundedElastic());
+    }
+
+    ReactiveUserRepository(UserRepository userRepository, Scheduler writeScheduler) {
+        this.userRepository = userRepository;
+        this.writeScheduler = writeScheduler;
+    }
+
+    /**
+     * Usuarios con id mayor que {@code afterId} en orden ascendente, hasta {@code limit}.
+     */
+    public Flux<User> scan(long afterId, long limit) {
+        return Flux.generate(() -> new Cursor(afterId, limit),
+                (cursor, sink) -> cursor.next(sink,
+                        (after, chunk, buffer) -> userRepository.scan(after, chunk, buffer::add)));
+    }
+
+    /**
+     * Como {@link #scan}, con los usuarios que coinciden con la consulta ({@link UserRepository#search}).
+     */
+    public Flux<User> search(String query, boolean prefixOnly, long afterId, long limit) {
+        return Flux.generate(() -> new Cursor(afterId, limit),
+                (cursor, sink) -> cursor.next(sink,
+                        (after, chunk, buffer) -> userRepository.search(query, prefixOnly, after, chunk, buffer::add)));
+    }
+
+    public Mono<User> findById(long id) {
+        return Mono.fromSupplier(() -> userRepository.findById(id).orElse(null));
+    }
+
+    /** Guarda el usuario fuera del hilo que se suscribe: con WAL, {@code save} espera al disco. */
+    public Mono<User> save(User user) {
+        return Mono.fromSupplier(() -> userRepository.save(user)).subscribeOn(writeScheduler);
+    }
+
+    @FunctionalInterface
+    private interface ChunkReader {
+
+        /** Lee hasta {@code limit} usuarios tras {@code afterId} en {@code buffer}; devuelve el último id. */
+        long read(long afterId, int limit, ArrayDeque<User> buffer);
+    }
+
+    /**
+     * Estado de un recorrido: posición del cursor, usuarios que faltan por entregar y el tramo leído.
+     */
+    private static final class Cursor {
+
+        private final ArrayDeque<User> buffer = new ArrayDeque<>(CHUNK);
+        private long afterId;
+        private long remaining;
+        private boolean exhausted;
+
+        Cursor(long afterId, long remaining) {
+            this.afterId = afterId;
+            this.remaining = remaining;
+        }
+
+        /** Emite un único usuario, leyendo el siguiente tramo si el actual se agotó. */
+        Cursor next(SynchronousSink<User> sink, ChunkReader reader) {
+            if (buffer.isEmpty() && !exhausted && remaining > 0) {
+                int chunk = (int) Math.min(CHUNK, remaining);
+                long last = reader.read(afterId, chunk, buffer);
+                exhausted = buffer.size() < chunk;
+                if (last > 0) {
+                    afterId = last;
+                }
+            }
+            User user = buffer.poll();
+            if (user == null) {
+                sink.complete();
+            } else {
+                remaining--;
+                sink.next(user);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package pe.edu.vallegrande.repository;
+
+/**
+ * Índice secundario de un campo único (username, email) hacia el id del usuario.
+ */
+interface UserIndex {
+
+    /** Asocia la clave al id; si ya estaba asociada a otro id, gana la última. */
+    void put(String key, long id);
+
+    /** Elimina la asociación solo si la clave apunta todavía a ese id. */
+    void remove(String key, long id);
+
+    /** Id asociado a la clave, o 0 si no existe. */
+    long find(String key);
+}
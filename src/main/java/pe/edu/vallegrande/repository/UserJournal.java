@@ -0,0 +1,67 @@
+package pe.edu.vallegrande.repository;
+
+import pe.edu.vallegrande.model.User;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Registro persistente de las escrituras de {@link UserRepository}.
+ * El repositorio comprueba que el registro cabe en el formato, publica el usuario en memoria, lo
+ * registra con {@link #append} y responde cuando {@link #awaitDurable} confirma que está en disco.
+ */
+public interface UserJournal extends Closeable {
+
+    /** Sin persistencia: los usuarios viven solo en memoria. */
+    UserJournal NONE = new UserJournal() {
+        @Override
+        public void open(UserRepository repository) {
+        }
+
+        @Override
+        public long append(User user) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long sequence) {
+        }
+
+        @Override
+        public boolean isBlocking() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Recupera en el repositorio el estado persistido y a partir de ahí acepta escrituras.
+     */
+    void open(UserRepository repository);
+
+    /**
+     * Registra la versión actual del usuario y devuelve su número de secuencia.
+     */
+    long append(User user);
+
+    /**
+     * Bloquea hasta que el registro {@code sequence} (y todos los anteriores) esté en disco.
+     */
+    void awaitDurable(long sequence);
+
+    /**
+     * {@code true} si {@link #awaitDurable} puede bloquear al hilo esperando al disco.
+     */
+    boolean isBlocking();
+
+    /**
+     * Write-ahead log en {@code directory} con snapshots compactados cada {@code snapshotInterval}.
+     */
+    static UserJournal fileBacked(Path directory, Duration snapshotInterval) {
+        return new FileUserJournal(directory, snapshotInterval);
+    }
+}
@@ -0,0 +1,258 @@
+package pe.edu.vallegrande.repository;
+
+import pe.edu.vallegrande.model.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binario compartido por el WAL y los snapshots de usuarios.
+ * <p>
+ * Cada registro es {@code [longitud u32][crc32c u32][id u64][username][email][password]}, con cada
+ * campo como longitud i32 (-1 = null) seguida de los bytes UTF-8. Un registro incompleto o con CRC
+ * erróneo marca el final de la parte válida del fichero (escritura interrumpida por una caída).
+ * Los snapshots añaden una cabecera {@code [magic][versión][número de registros]} y se leen y escriben
+ * a través de ventanas mapeadas en memoria.
+ */
+final class UserRecordFile {
+
+    static final int FRAME_HEADER = 8;
+    static final int SNAPSHOT_HEADER = 16;
+    static final int SNAPSHOT_MAGIC = 0x55534E50;
+    static final int SNAPSHOT_VERSION = 1;
+
+    /** Ventana de mapeo; los ficheros grandes se recorren en tramos para no mapear más de 2 GB de una vez. */
+    static final int WINDOW_SIZE = 64 << 20;
+    static final int MAX_PAYLOAD = 16 << 20;
+    private static final int MIN_PAYLOAD = 8 + 3 * 4;
+
+    private UserRecordFile() {
+    }
+
+    /**
+     * Comprueba, sin codificarlo, que el registro del usuario no supera {@link #MAX_PAYLOAD}: el
+     * repositorio lo llama antes de publicar el usuario en memoria.
+     */
+    static void checkSize(User user) {
+        long payload = MIN_PAYLOAD + utf8Length(user.getUsername()) + utf8Length(user.getEmail())
+                + utf8Length(user.getPassword());
+        if (payload > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("User record exceeds " + MAX_PAYLOAD + " bytes");
+        }
+    }
+
+    /** Registro completo (cabecera y contenido) del usuario. */
+    static byte[] encode(User user) {
+        byte[] username = utf8(user.getUsername());
+        byte[] email = utf8(user.getEmail());
+        byte[] password = utf8(user.getPassword());
+        int payload = MIN_PAYLOAD + size(username) + size(email) + size(password);
+        if (payload > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("User record exceeds " + MAX_PAYLOAD + " bytes");
+        }
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + payload);
+        frame.position(FRAME_HEADER);
+        frame.putLong(user.getId());
+        put(frame, username);
+        put(frame, email);
+        put(frame, password);
+        CRC32C crc = new CRC32C();
+        crc.update(frame.array(), FRAME_HEADER, payload);
+        frame.putInt(0, payload);
+        frame.putInt(4, (int) crc.getValue());
+        return frame.array();
+    }
+
+    /**
+     * Entrega los registros válidos entre {@code offset} y {@code end} y devuelve la posición
+     * siguiente al último de ellos.
+     */
+    static long read(FileChannel channel, long offset, long end, Consumer<User> action) throws IOException {
+        CRC32C crc = new CRC32C();
+        long position = offset;
+        long windowStart = offset;
+        MappedByteBuffer window = null;
+        while (end - position >= FRAME_HEADER) {
+            if (window == null || position + FRAME_HEADER > windowStart + window.limit()) {
+                windowStart = position;
+                window = map(channel, FileChannel.MapMode.READ_ONLY, position, end - position);
+            }
+            int index = (int) (position - windowStart);
+            int length = window.getInt(index);
+            if (length < MIN_PAYLOAD || length > MAX_PAYLOAD || end - position - FRAME_HEADER < length) {
+                break;
+            }
+            if (position + FRAME_HEADER + length > windowStart + window.limit()) {
+                windowStart = position;
+                window = map(channel, FileChannel.MapMode.READ_ONLY, position, end - position);
+                index = 0;
+            }
+            crc.reset();
+            crc.update(window.slice(index + FRAME_HEADER, length));
+            if ((int) crc.getValue() != window.getInt(index + 4)) {
+                break;
+            }
+            action.accept(decode(window, index + FRAME_HEADER));
+            position += FRAME_HEADER + length;
+        }
+        return position;
+    }
+
+    /**
+     * Carga un snapshot completo. Devuelve el número de usuarios leídos.
+     */
+    static long readSnapshot(Path file, Consumer<User> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SNAPSHOT_HEADER) {
+                throw new IOException("Truncated user snapshot " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SNAPSHOT_HEADER);
+            if (header.getInt(0) != SNAPSHOT_MAGIC || header.getInt(4) != SNAPSHOT_VERSION) {
+                throw new IOException("Not a user snapshot: " + file);
+            }
+            long expected = header.getLong(8);
+            long[] count = new long[1];
+            long end = read(channel, SNAPSHOT_HEADER, size, user -> {
+                action.accept(user);
+                count[0]++;
+            });
+            if (count[0] != expected || end != size) {
+                throw new IOException("Corrupt user snapshot " + file);
+            }
+            return expected;
+        }
+    }
+
+    /**
+     * Escribe un snapshot a través de ventanas mapeadas: cada registro se copia directamente en la caché
+     * de páginas, sin llamadas al sistema por registro.
+     */
+    static final class SnapshotWriter implements Closeable {
+
+        private final FileChannel channel;
+        private long windowStart;
+        private MappedByteBuffer window;
+        private long count;
+
+        SnapshotWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.window = channel.map(FileChannel.MapMode.READ_WRITE, 0, WINDOW_SIZE);
+            this.window.position(SNAPSHOT_HEADER);
+        }
+
+        void write(User user) {
+            byte[] frame = encode(user);
+            try {
+                if (window.remaining() < frame.length) {
+                    window.force();
+                    windowStart += window.position();
+                    window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart,
+                            Math.max(WINDOW_SIZE, frame.length));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map user snapshot", e);
+            }
+            window.put(frame);
+            count++;
+        }
+
+        /** Completa la cabecera, recorta el fichero al tamaño real y lo sincroniza con el disco. */
+        void finish() throws IOException {
+            long end = windowStart + window.position();
+            window.force();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, SNAPSHOT_HEADER);
+            header.putInt(0, SNAPSHOT_MAGIC).putInt(4, SNAPSHOT_VERSION).putLong(8, count);
+            header.force();
+            channel.truncate(end);
+            channel.force(true);
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long remaining)
+            throws IOException {
+        return channel.map(mode, position, Math.min(WINDOW_SIZE, remaining));
+    }
+
+    private static User decode(ByteBuffer buffer, int index) {
+        long id = buffer.getLong(index);
+        index += 8;
+        int usernameLength = buffer.getInt(index);
+        String username = string(buffer, index + 4, usernameLength);
+        index += 4 + Math.max(usernameLength, 0);
+        int emailLength = buffer.getInt(index);
+        String email = string(buffer, index + 4, emailLength);
+        index += 4 + Math.max(emailLength, 0);
+        String password = string(buffer, index + 4, buffer.getInt(index));
+        return new User(id, username, email, password);
+    }
+
+    private static String string(ByteBuffer buffer, int index, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(index, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Igual que getBytes(UTF_8).length: un sustituto suelto se codifica como '?'
+    private static long utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static int size(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void put(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+}
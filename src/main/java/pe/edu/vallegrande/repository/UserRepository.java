@@ -0,0 +1,263 @@
+package pe.edu.vallegrande.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import pe.edu.vallegrande.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Almacén de usuarios compartido por las APIs V1 y V2.
+ * El índice primario ({@link UserStorage}) es un directorio de bloques indexado por el id
+ * (long primitivo): las lecturas por id son O(1) y no toman ningún lock. Mantiene además
+ * índices secundarios por username y email y un índice de n-gramas para búsquedas
+ * ({@link UserSearchIndex}), que está siempre en el heap aunque los usuarios no lo estén; con
+ * app.users.search-index=false no se construye y las búsquedas recorren el almacén.
+ * Si hay un {@link UserJournal} configurado, cada escritura se registra en él y {@link #save}
+ * no devuelve el control hasta que está en disco.
+ */
+@Repository
+public class UserRepository {
+
+    /** Mayor id soportado por el directorio de bloques. */
+    public static final long MAX_ID = UserStorage.MAX_ID;
+
+    /** Usuarios leídos por tramo al buscar sin índice. */
+    private static final int SEARCH_SCAN_PAGE = 1024;
+
+    private final UserStorage storage;
+    private final AtomicLong idGenerator = new AtomicLong();
+    private final LongAdder size = new LongAdder();
+
+    private final UserIndex byUsername;
+    private final UserIndex byEmail;
+    private final UserSearchIndex searchIndex;
+    private final UserJournal journal;
+
+    public UserRepository() {
+        this(new HeapUserStorage());
+    }
+
+    public UserRepository(UserStorage storage) {
+        this(storage, UserJournal.NONE);
+    }
+
+    public UserRepository(UserStorage storage, UserJournal journal) {
+        this(storage, journal, true);
+    }
+
+    @Autowired
+    public UserRepository(UserStorage storage, UserJournal journal,
+                          @Value("${app.users.search-index:true}") boolean searchIndexed) {
+        this.storage = storage;
+        this.searchIndex = searchIndexed ? new UserSearchIndex() : null;
+        this.byUsername = storage.newIndex(User::getUsername);
+        this.byEmail = storage.newIndex(User::getEmail);
+        this.journal = journal;
+        journal.open(this);
+        if (count() == 0) {
+            // Datos de prueba
+            save(new User(null, "admin", "admin@example.com", "admin123"));
+            save(new User(null, "user1", "user1@example.com", "password123"));
+        }
+    }
+
+    /**
+     * Guarda el usuario. Si no tiene id se le asigna el siguiente del generador;
+     * si ya existe un usuario con ese id, se reemplaza.
+     */
+    public User save(User user) {
+        checkWritable(user);
+        store(user);
+        journal.awaitDurable(journal.append(user));
+        return user;
+    }
+
+    /**
+     * Guarda un lote de usuarios. Los que no tienen id reciben un bloque contiguo
+     * reservado con una única operación atómica; el lote se confirma en disco con una sola espera.
+     */
+    public void saveAll(List<User> users) {
+        int withoutId = 0;
+        for (User user : users) {
+            checkWritable(user);
+            if (user.getId() == null) {
+                withoutId++;
+            }
+        }
+        long nextId = withoutId == 0 ? 0 : reserveIds(withoutId);
+        long last = 0;
+        for (User user : users) {
+            if (user.getId() == null) {
+                user.setId(nextId++);
+            }
+            store(user);
+            last = journal.append(user);
+        }
+        journal.awaitDurable(last);
+    }
+
+    /**
+     * Reaplica un usuario recuperado del journal sin volver a registrarlo.
+     */
+    void restore(User user) {
+        store(user);
+    }
+
+    /**
+     * Reserva {@code count} ids consecutivos y devuelve el primero.
+     */
+    public long reserveIds(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        return idGenerator.getAndAdd(count) + 1;
+    }
+
+    public Optional<User> findById(long id) {
+        if (id <= 0 || id > idGenerator.get()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(storage.get(id));
+    }
+
+    public Optional<User> findByUsername(String username) {
+        return username == null ? Optional.empty() : resolve(byUsername.find(username));
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return email == null ? Optional.empty() : resolve(byEmail.find(email));
+    }
+
+    /** Recorre los usuarios en orden ascendente de id sin crear copias intermedias. */
+    public void forEach(Consumer<? super User> action) {
+        scan(0, Integer.MAX_VALUE, action);
+    }
+
+    /**
+     * Recorre en orden ascendente hasta {@code limit} usuarios con id mayor que {@code afterId}
+     * (paginación por cursor/keyset). Devuelve el id del último usuario entregado, o 0 si no hubo ninguno.
+     */
+    public long scan(long afterId, int limit, Consumer<? super User> action) {
+        return storage.scan(afterId, idGenerator.get(), limit, action);
+    }
+
+    /**
+     * Como {@link #scan}, pero solo con los usuarios cuyo username o email empieza por {@code query} o,
+     * si {@code prefixOnly} es falso, la contiene (sin distinguir mayúsculas). Las consultas de menos de
+     * {@value UserSearchIndex#MIN_SUBSTRING_LENGTH} caracteres solo coinciden por prefijo.
+     */
+    public long search(String query, boolean prefixOnly, long afterId, int limit, Consumer<? super User> action) {
+        if (searchIndex != null) {
+            return searchIndex.search(query, prefixOnly, afterId, limit, storage::get, action);
+        }
+        if (query.isEmpty() || limit < 1) {
+            return 0;
+        }
+        // Sin índice: recorrido por tramos hasta completar el límite, O(usuarios desde el cursor)
+        Predicate<User> matches = UserSearchIndex.matcher(query, prefixOnly);
+        long[] last = {0};
+        int[] delivered = {0};
+        long cursor = afterId;
+        while (delivered[0] < limit) {
+            long scanned = storage.scan(cursor, idGenerator.get(), SEARCH_SCAN_PAGE, user -> {
+                if (delivered[0] < limit && matches.test(user)) {
+                    action.accept(user);
+                    last[0] = user.getId();
+                    delivered[0]++;
+                }
+            });
+            if (scanned == 0) {
+                break;
+            }
+            cursor = scanned;
+        }
+        return last[0];
+    }
+
+    /** Indica si {@link #save} puede bloquear esperando a que el journal confirme la escritura en disco. */
+    public boolean writesBlock() {
+        return journal.isBlocking();
+    }
+
+    /** Indica si existe algún id asignado por encima de {@code id}. */
+    public boolean hasIdsAfter(long id) {
+        return idGenerator.get() > id;
+    }
+
+    public List<User> findAll() {
+        List<User> result = new ArrayList<>((int) Math.min(count(), Integer.MAX_VALUE - 8));
+        forEach(result::add);
+        return result;
+    }
+
+    public long count() {
+        return size.sum();
+    }
+
+    // Lo que no se podría registrar en el journal se rechaza antes de tocar la memoria: un usuario
+    // publicado pero sin registro no sería durable y haría fallar cada checkpoint posterior
+    private static void checkWritable(User user) {
+        if (user.getId() != null && (user.getId() <= 0 || user.getId() > MAX_ID)) {
+            throw new IllegalArgumentException("User id out of range: " + user.getId());
+        }
+        UserRecordFile.checkSize(user);
+    }
+
+    // Se publica en memoria antes de registrarlo: un checkpoint que recorre el repositorio ve
+    // todo lo que quedó en los segmentos del WAL que descarta
+    private void store(User user) {
+        if (user.getId() != null && (user.getId() <= 0 || user.getId() > MAX_ID)) {
+            throw new IllegalArgumentException("User id out of range: " + user.getId());
+        }
+        if (user.getId() == null) {
+            user.setId(idGenerator.incrementAndGet());
+        } else if (user.getId() > idGenerator.get()) {
+            idGenerator.accumulateAndGet(user.getId(), Math::max);
+        }
+        long id = user.getId();
+        User previous = storage.put(id, user);
+        if (previous == null) {
+            size.increment();
+        } else {
+            unindex(previous);
+        }
+        index(user);
+    }
+
+    private Optional<User> resolve(long id) {
+        return id == 0 ? Optional.empty() : findById(id);
+    }
+
+    private void index(User user) {
+        if (searchIndex != null) {
+            searchIndex.add(user);
+        }
+        if (user.getUsername() != null) {
+            byUsername.put(user.getUsername(), user.getId());
+        }
+        if (user.getEmail() != null) {
+            byEmail.put(user.getEmail(), user.getId());
+        }
+    }
+
+    private void unindex(User user) {
+        if (searchIndex != null) {
+            searchIndex.remove(user);
+        }
+        if (user.getUsername() != null) {
+            byUsername.remove(user.getUsername(), user.getId());
+        }
+        if (user.getEmail() != null) {
+            byEmail.remove(user.getEmail(), user.getId());
+        }
+    }
+
+}
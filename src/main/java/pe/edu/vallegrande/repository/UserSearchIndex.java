@@ -0,0 +1,390 @@
+package pe.edu.vallegrande.repository;
+
+import pe.edu.vallegrande.model.User;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+/**
+ * Índice de n-gramas para buscar usuarios por prefijo o subcadena de username y email, sin distinguir
+ * mayúsculas.
+ * <p>
+ * Cada usuario se indexa por los trigramas de ambos campos y por su primer carácter y sus dos primeros
+ * caracteres anclados al inicio (para prefijos de 1 y 2 caracteres). Cada n-grama tiene una lista de ids
+ * ordenada (int primitivos, ~4 bytes por n-grama distinto del usuario) partida en bloques de hasta
+ * {@value #CHUNK_SIZE} ids: añadir al final no copia nada y una inserción fuera de orden o un borrado
+ * solo copian su bloque y la tabla de bloques, no la lista entera. Una búsqueda recorre la lista más
+ * corta de los n-gramas de la consulta desde el cursor y la interseca con las demás saltando con búsqueda
+ * exponencial (leapfrog join), verifica cada candidato contra el registro y termina al llegar al límite:
+ * el coste depende de las listas más selectivas y del límite, no del número de usuarios.
+ * <p>
+ * Las lecturas no toman locks: cada lista publica instantáneas inmutables ({@link Postings}) y solo las
+ * escrituras sobre la misma lista se serializan.
+ * <p>
+ * El índice vive en el heap con cualquier {@code app.users.storage} (unos 30-60 n-gramas por usuario);
+ * con {@code app.users.search-index=false} no se construye y {@link UserRepository#search} recorre el
+ * almacén.
+ */
+final class UserSearchIndex {
+
+    /** Longitud mínima para buscar por subcadena; las consultas más cortas solo coinciden por prefijo. */
+    static final int MIN_SUBSTRING_LENGTH = 3;
+    /** Ids por bloque de una lista: acota lo que copia una inserción fuera de orden o un borrado. */
+    static final int CHUNK_SIZE = 128;
+
+    private static final long ANCHOR_1 = 1L << 48;
+    private static final long ANCHOR_2 = 2L << 48;
+
+    private final ConcurrentMap<Long, PostingList> postings = new ConcurrentHashMap<>();
+
+    void add(User user) {
+        for (long gram : grams(user)) {
+            postings.computeIfAbsent(gram, g -> new PostingList()).add(toInt(user.getId()));
+        }
+    }
+
+    void remove(User user) {
+        for (long gram : grams(user)) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(toInt(user.getId()));
+            }
+        }
+    }
+
+    /**
+     * Entrega en orden ascendente de id hasta {@code limit} usuarios con id mayor que {@code afterId} cuyo
+     * username o email empieza por (o, si {@code prefixOnly} es falso, contiene) la consulta.
+     * Devuelve el id del último usuario entregado, o 0 si no hubo ninguno.
+     */
+    long search(String query, boolean prefixOnly, long afterId, int limit,
+                LongFunction<User> lookup, Consumer<? super User> action) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        if (needle.isEmpty() || limit < 1 || afterId >= Integer.MAX_VALUE) {
+            return 0;
+        }
+        boolean prefix = isPrefix(needle, prefixOnly);
+        long[] grams = queryGrams(needle, prefix);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            PostingList list = postings.get(grams[i]);
+            if (list == null) {
+                return 0;
+            }
+            lists[i] = list.snapshot;
+        }
+        // La lista más corta propone candidatos; cuando otra lista no contiene el candidato, su siguiente
+        // id pasa a ser el nuevo candidato y todas las listas saltan hasta él (leapfrog join)
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] chunks = new int[lists.length];
+        int[] offsets = new int[lists.length];
+        Predicate<User> matches = predicate(needle, prefix);
+        long last = 0;
+        int delivered = 0;
+        long candidate = Math.max(afterId + 1, 1);
+        while (delivered < limit && candidate <= Integer.MAX_VALUE) {
+            int id = (int) candidate;
+            int next = nextCommon(lists, chunks, offsets, id);
+            if (next < 0) {
+                break;
+            }
+            if (next != id) {
+                candidate = next;
+                continue;
+            }
+            User user = lookup.apply(id);
+            if (user != null && user.getId() == id && matches.test(user)) {
+                action.accept(user);
+                last = id;
+                delivered++;
+            }
+            candidate = id + 1L;
+        }
+        return last;
+    }
+
+    /**
+     * Criterio de {@link #search} para una consulta, para verificar candidatos o recorrer el almacén sin
+     * índice.
+     */
+    static Predicate<User> matcher(String query, boolean prefixOnly) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        return predicate(needle, isPrefix(needle, prefixOnly));
+    }
+
+    private static Predicate<User> predicate(String needle, boolean prefix) {
+        return prefix
+                ? user -> startsWith(user.getUsername(), needle) || startsWith(user.getEmail(), needle)
+                : user -> contains(user.getUsername(), needle) || contains(user.getEmail(), needle);
+    }
+
+    private static boolean isPrefix(String needle, boolean prefixOnly) {
+        return prefixOnly || needle.length() < MIN_SUBSTRING_LENGTH;
+    }
+
+    /**
+     * Avanza los cursores (bloque y posición en el bloque) hasta {@code id}. Devuelve {@code id} si está en
+     * todas las listas, el siguiente id que podría estarlo si no, o -1 si alguna lista se agotó.
+     */
+    private static int nextCommon(Postings[] lists, int[] chunks, int[] offsets, int id) {
+        for (int l = 0; l < lists.length; l++) {
+            Postings list = lists[l];
+            int chunk = list.chunkFor(chunks[l], id);
+            if (chunk >= list.count) {
+                return -1;
+            }
+            int offset = list.ceiling(chunk, chunk == chunks[l] ? offsets[l] : 0, id);
+            chunks[l] = chunk;
+            offsets[l] = offset;
+            int found = list.chunks[chunk][offset];
+            if (found != id) {
+                return found;
+            }
+        }
+        return id;
+    }
+
+    private static long[] grams(User user) {
+        long[] grams = new long[fieldGrams(user.getUsername()) + fieldGrams(user.getEmail())];
+        int count = addGrams(user.getUsername(), grams, 0);
+        count = addGrams(user.getEmail(), grams, count);
+        Arrays.sort(grams, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || grams[unique - 1] != grams[i]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, unique);
+    }
+
+    private static int fieldGrams(String value) {
+        return value == null || value.isEmpty() ? 0 : 2 + Math.max(0, value.length() - 2);
+    }
+
+    private static int addGrams(String value, long[] grams, int count) {
+        if (value == null || value.isEmpty()) {
+            return count;
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        grams[count++] = ANCHOR_1 | lower.charAt(0);
+        if (lower.length() >= 2) {
+            grams[count++] = ANCHOR_2 | ((long) lower.charAt(0) << 16) | lower.charAt(1);
+        }
+        for (int i = 0; i + 3 <= lower.length(); i++) {
+            grams[count++] = trigram(lower, i);
+        }
+        return count;
+    }
+
+    private static long[] queryGrams(String needle, boolean prefix) {
+        int trigrams = Math.max(0, needle.length() - 2);
+        long[] grams = new long[trigrams + (prefix ? 1 : 0)];
+        int count = 0;
+        if (prefix) {
+            grams[count++] = needle.length() == 1
+                    ? ANCHOR_1 | needle.charAt(0)
+                    : ANCHOR_2 | ((long) needle.charAt(0) << 16) | needle.charAt(1);
+        }
+        for (int i = 0; i < trigrams; i++) {
+            grams[count++] = trigram(needle, i);
+        }
+        Arrays.sort(grams);
+        return grams;
+    }
+
+    private static long trigram(String value, int index) {
+        return ((long) value.charAt(index) << 32) | ((long) value.charAt(index + 1) << 16) | value.charAt(index + 2);
+    }
+
+    private static boolean startsWith(String value, String lowerPrefix) {
+        return value != null && value.regionMatches(true, 0, lowerPrefix, 0, lowerPrefix.length());
+    }
+
+    private static boolean contains(String value, String lowerNeedle) {
+        if (value == null) {
+            return false;
+        }
+        // Sin copiar el valor en minúsculas: se compara en cada posición ignorando mayúsculas
+        for (int i = 0, last = value.length() - lowerNeedle.length(); i <= last; i++) {
+            if (value.regionMatches(true, i, lowerNeedle, 0, lowerNeedle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int toInt(long id) {
+        // UserStorage.MAX_ID cabe en un int
+        return (int) id;
+    }
+
+    /**
+     * Ids de un n-grama. Las escrituras se serializan con el lock de la propia lista; los lectores usan la
+     * última instantánea publicada, cuyos bloques no vuelven a modificarse en las posiciones que cubre.
+     */
+    private static final class PostingList {
+
+        // ReentrantLock y no synchronized: no fija el hilo portador de los virtual threads
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Postings snapshot = Postings.EMPTY;
+
+        void add(int id) {
+            lock.lock();
+            try {
+                Postings current = snapshot;
+                if (current.size == 0) {
+                    int[] first = new int[4];
+                    first[0] = id;
+                    snapshot = new Postings(new int[][]{first}, 1, 1, 1);
+                } else if (current.last() < id) {
+                    snapshot = current.append(id);
+                } else {
+                    snapshot = current.insert(id);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(int id) {
+            lock.lock();
+            try {
+                snapshot = snapshot.without(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Instantánea de una lista: {@code chunks[0, count)} son bloques ordenados y no vacíos. Todos tienen
+     * exactamente su longitud salvo el último, que usa {@code lastSize} posiciones y puede tener hueco para
+     * añadir al final sin copiar. Nada de lo que cubre una instantánea se modifica después: las escrituras
+     * solo usan posiciones libres o publican bloques y tablas nuevos.
+     */
+    private record Postings(int[][] chunks, int count, int lastSize, int size) {
+
+        static final Postings EMPTY = new Postings(new int[0][], 0, 0, 0);
+
+        int length(int chunk) {
+            return chunk == count - 1 ? lastSize : chunks[chunk].length;
+        }
+
+        int last() {
+            return chunks[count - 1][lastSize - 1];
+        }
+
+        /** Primer bloque desde {@code from} cuyo último id es mayor o igual que {@code id} (o {@code count}). */
+        int chunkFor(int from, int id) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            // Saltos exponenciales sobre el último id de cada bloque y búsqueda binaria en el tramo final
+            while (high < count && chunks[high][length(high) - 1] < id) {
+                low = high + 1;
+                high = from + step;
+                step <<= 1;
+            }
+            high = Math.min(high, count);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (chunks[middle][length(middle) - 1] < id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /** Primera posición del bloque, desde {@code from}, con un id mayor o igual que {@code id}. */
+        int ceiling(int chunk, int from, int id) {
+            int position = Arrays.binarySearch(chunks[chunk], from, length(chunk), id);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        /** Caso habitual: ids crecientes. Escribe en posiciones que ninguna instantánea cubre. */
+        Postings append(int id) {
+            int lastChunk = count - 1;
+            int[] tail = chunks[lastChunk];
+            if (lastSize < tail.length) {
+                tail[lastSize] = id;
+                return new Postings(chunks, count, lastSize + 1, size + 1);
+            }
+            if (lastSize < CHUNK_SIZE) {
+                // Crece el último bloque: con una tabla nueva, las instantáneas anteriores conservan el suyo
+                int[][] grown = Arrays.copyOf(chunks, chunks.length);
+                int[] bigger = Arrays.copyOf(tail, Math.min(CHUNK_SIZE, lastSize << 1));
+                bigger[lastSize] = id;
+                grown[lastChunk] = bigger;
+                return new Postings(grown, count, lastSize + 1, size + 1);
+            }
+            int[][] table = count == chunks.length ? Arrays.copyOf(chunks, count + (count >> 1) + 1) : chunks;
+            int[] fresh = new int[CHUNK_SIZE];
+            fresh[0] = id;
+            table[count] = fresh;
+            return new Postings(table, count + 1, 1, size + 1);
+        }
+
+        /** Inserción fuera de orden: copia solo el bloque afectado, partido en dos si se llena. */
+        Postings insert(int id) {
+            int chunk = chunkFor(0, id);
+            int length = length(chunk);
+            int position = Arrays.binarySearch(chunks[chunk], 0, length, id);
+            if (position >= 0) {
+                return this;
+            }
+            int insertion = -position - 1;
+            int[] ids = new int[length + 1];
+            System.arraycopy(chunks[chunk], 0, ids, 0, insertion);
+            ids[insertion] = id;
+            System.arraycopy(chunks[chunk], insertion, ids, insertion + 1, length - insertion);
+            if (ids.length <= CHUNK_SIZE) {
+                return replace(chunk, size + 1, ids);
+            }
+            int half = ids.length >> 1;
+            return replace(chunk, size + 1, Arrays.copyOfRange(ids, 0, half), Arrays.copyOfRange(ids, half, ids.length));
+        }
+
+        Postings without(int id) {
+            if (size == 0) {
+                return this;
+            }
+            int chunk = chunkFor(0, id);
+            if (chunk >= count) {
+                return this;
+            }
+            int length = length(chunk);
+            int position = Arrays.binarySearch(chunks[chunk], 0, length, id);
+            if (position < 0) {
+                return this;
+            }
+            if (length == 1) {
+                return size == 1 ? EMPTY : replace(chunk, size - 1);
+            }
+            int[] ids = new int[length - 1];
+            System.arraycopy(chunks[chunk], 0, ids, 0, position);
+            System.arraycopy(chunks[chunk], position + 1, ids, position, length - position - 1);
+            return replace(chunk, size - 1, ids);
+        }
+
+        /** Nueva tabla con el bloque {@code chunk} sustituido por {@code parts} (ninguno si quedó vacío). */
+        private Postings replace(int chunk, int newSize, int[]... parts) {
+            int newCount = count - 1 + parts.length;
+            int[][] table = new int[newCount][];
+            System.arraycopy(chunks, 0, table, 0, chunk);
+            System.arraycopy(parts, 0, table, chunk, parts.length);
+            System.arraycopy(chunks, chunk + 1, table, chunk + parts.length, count - chunk - 1);
+            // El último bloque conserva su hueco si no se sustituyó; si no, el nuevo último es exacto
+            int newLastSize = chunk == count - 1 ? table[newCount - 1].length : lastSize;
+            return new Postings(table, newCount, newLastSize, newSize);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package pe.edu.vallegrande.repository;
+
+import pe.edu.vallegrande.model.User;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Almacenamiento primario de usuarios direccionado por id.
+ * Los ids se ubican en un directorio de bloques de {@link #CHUNK_SIZE} posiciones;
+ * las lecturas no toman locks.
+ */
+public interface UserStorage {
+
+    int CHUNK_BITS = 14;
+    int CHUNK_SIZE = 1 << CHUNK_BITS;
+    int CHUNK_MASK = CHUNK_SIZE - 1;
+    int MAX_CHUNKS = 1 << 17;
+
+    /** Mayor id soportado por el directorio de bloques. */
+    long MAX_ID = ((long) MAX_CHUNKS << CHUNK_BITS) - 1;
+
+    /**
+     * Guarda el usuario en la posición {@code id} y devuelve el anterior, o {@code null}.
+     */
+    User put(long id, User user);
+
+    /**
+     * Usuario con ese id, o {@code null}. El almacenamiento columnar materializa un objeto nuevo en cada llamada.
+     */
+    User get(long id);
+
+    /**
+     * Recorre en orden ascendente hasta {@code limit} usuarios con id en ({@code afterId}, {@code maxId}].
+     * Devuelve el id del último usuario entregado, o 0 si no hubo ninguno.
+     */
+    long scan(long afterId, long maxId, int limit, Consumer<? super User> action);
+
+    /**
+     * Índice secundario adecuado para este almacenamiento.
+     */
+    default UserIndex newIndex(Function<User, String> field) {
+        return new HashUserIndex();
+    }
+
+    static int chunkIndex(long id) {
+        if (id <= 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("User id out of range: " + id);
+        }
+        return (int) (id >>> CHUNK_BITS);
+    }
+
+    static int slot(long id) {
+        return (int) (id & CHUNK_MASK);
+    }
+
+    /**
+     * Crea el almacenamiento para el modo configurado: heap, columnar o columnar-offheap.
+     */
+    static UserStorage create(String mode) {
+        return switch (mode) {
+            case "heap" -> new HeapUserStorage();
+            case "columnar" -> new ColumnarUserStorage(false);
+            case "columnar-offheap" -> new ColumnarUserStorage(true);
+            default -> throw new IllegalArgumentException(
+                    "Unknown user storage mode '" + mode + "' (expected heap, columnar or columnar-offheap)");
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package pe.edu.vallegrande.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hash de contraseñas fuera de los hilos de petición.
+ * BCrypt cuesta decenas de milisegundos de CPU por contraseña, así que el trabajo se ejecuta en un
+ * pool de tamaño fijo (por defecto, uno por CPU) con una cola acotada. Cuando la cola está llena la
+ * petición se rechaza de inmediato ({@link RejectedExecutionException}) en lugar de acumular trabajo.
+ * El pool publica sus métricas de Micrometer con el nombre {@value #METRIC_NAME}
+ * (executor.queued, executor.active, executor.queue.remaining, ...).
+ */
+@Service
+public class PasswordHashingService {
+
+    public static final String METRIC_NAME = "password.hashing";
+    public static final String REJECTED_METRIC = "password.hashing.rejected";
+    /** BCrypt solo usa los primeros 72 bytes y BCryptPasswordEncoder lanza una excepción con más. */
+    public static final int MAX_PASSWORD_BYTES = 72;
+
+    private static final long RETRY_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHashingService(@Value("${app.users.password.bcrypt-strength:10}") int strength,
+                                  @Value("${app.users.password.hashing-threads:0}") int threads,
+                                  @Value("${app.users.password.queue-capacity:256}") int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        this(new BCryptPasswordEncoder(strength),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, meterRegistry);
+    }
+
+    PasswordHashingService(PasswordEncoder encoder, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.encoder = encoder;
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), hashingThreads(), new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, METRIC_NAME);
+        this.rejected = Counter.builder(REJECTED_METRIC)
+                .description("Password hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /** Contraseñas que BCrypt no admite: hay que rechazarlas con 400 antes de pedir el hash. */
+    public static boolean isTooLong(String rawPassword) {
+        // Cada carácter ocupa de 1 a 3 bytes en UTF-8 (los pares suplentes, 4 entre los dos)
+        if (rawPassword.length() > MAX_PASSWORD_BYTES) {
+            return true;
+        }
+        return rawPassword.length() * 3 > MAX_PASSWORD_BYTES
+                && rawPassword.getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES;
+    }
+
+    /**
+     * Calcula el hash en el pool. Si la cola está llena, el future falla con
+     * {@link RejectedExecutionException} sin esperar.
+     */
+    public CompletableFuture<String> hash(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> encoder.encode(rawPassword), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Calcula los hashes de un lote para llamadores que ya bloquean su hilo (ingesta masiva).
+     * El trabajo sigue ejecutándose en el pool; cuando la cola está llena, en vez de rechazar,
+     * espera a que termine el hash más antiguo del propio lote.
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        List<CompletableFuture<String>> pending = new ArrayList<>(rawPasswords.size());
+        int oldest = 0;
+        for (String rawPassword : rawPasswords) {
+            while (true) {
+                try {
+                    pending.add(CompletableFuture.supplyAsync(() -> encoder.encode(rawPassword), executor));
+                    break;
+                } catch (RejectedExecutionException e) {
+                    if (pool.isShutdown()) {
+                        throw e;
+                    }
+                    if (oldest < pending.size()) {
+                        pending.get(oldest++).join();
+                    } else {
+                        // La cola la ocupan otras peticiones
+                        LockSupport.parkNanos(RETRY_PAUSE_NANOS);
+                    }
+                }
+            }
+        }
+        List<String> hashes = new ArrayList<>(pending.size());
+        for (CompletableFuture<String> hash : pending) {
+            hashes.add(hash.join());
+        }
+        return hashes;
+    }
+
+    public boolean matches(String rawPassword, String hash) {
+        return encoder.matches(rawPassword, hash);
+    }
+
+    /** Hashes en espera en la cola. */
+    public int queueDepth() {
+        return pool.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static ThreadFactory hashingThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
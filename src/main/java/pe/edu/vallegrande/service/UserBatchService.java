@@ -0,0 +1,193 @@
+package pe.edu.vallegrande.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import pe.edu.vallegrande.dto.BatchItemResultDto;
+import pe.edu.vallegrande.dto.UserCreateDto;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ingesta masiva de usuarios.
+ * Lee la entrada (array JSON o NDJSON) con el parser incremental de Jackson, inserta por bloques
+ * de {@link #CHUNK_SIZE} con un rango de ids reservado de una vez y escribe el resultado de cada
+ * elemento a medida que avanza, sin mantener en memoria el payload completo.
+ * Las contraseñas de cada bloque se hashean en el pool de {@link PasswordHashingService}.
+ */
+@Service
+public class UserBatchService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final PasswordHashingService passwordHashingService;
+    private final UserLookupService userLookupService;
+
+    public UserBatchService(UserRepository userRepository, ObjectMapper objectMapper,
+                            PasswordHashingService passwordHashingService, UserLookupService userLookupService) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.passwordHashingService = passwordHashingService;
+        this.userLookupService = userLookupService;
+    }
+
+    /**
+     * Procesa la entrada y escribe un resultado por elemento: un array JSON o,
+     * si {@code ndjsonOutput}, un objeto por línea.
+     */
+    public void importUsers(InputStream input, OutputStream output, boolean ndjsonOutput) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(input);
+             JsonGenerator generator = objectMapper.createGenerator(output)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            ResultWriter results = new ResultWriter(generator, ndjsonOutput);
+            results.start();
+
+            List<UserCreateDto> chunk = new ArrayList<>(CHUNK_SIZE);
+            int index = 0;
+            int chunkStart = 0;
+            try {
+                JsonToken first = parser.nextToken();
+                boolean array = first == JsonToken.START_ARRAY;
+                JsonToken token = array ? parser.nextToken() : first;
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    // Cada elemento se lee como árbol: un error de tipos afecta solo a ese elemento
+                    JsonNode node = parser.readValueAsTree();
+                    chunk.add(toDto(node));
+                    index++;
+                    if (chunk.size() == CHUNK_SIZE) {
+                        insert(chunk, chunkStart, results);
+                        chunkStart = index;
+                    }
+                    token = parser.nextToken();
+                }
+                insert(chunk, chunkStart, results);
+            } catch (JsonProcessingException e) {
+                // JSON mal formado: no se puede seguir leyendo, se confirma lo ya leído
+                insert(chunk, chunkStart, results);
+                results.write(BatchItemResultDto.rejected(index, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+            results.end();
+        }
+    }
+
+    private UserCreateDto toDto(JsonNode node) {
+        if (!node.isObject()) {
+            return null;
+        }
+        try {
+            return objectMapper.treeToValue(node, UserCreateDto.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void insert(List<UserCreateDto> chunk, int firstIndex, ResultWriter results) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<User> users = new ArrayList<>(chunk.size());
+        List<String> passwords = new ArrayList<>(chunk.size());
+        BatchItemResultDto[] outcome = new BatchItemResultDto[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            String error = validate(chunk.get(i));
+            if (error != null) {
+                outcome[i] = BatchItemResultDto.rejected(firstIndex + i, error);
+                continue;
+            }
+            UserCreateDto dto = chunk.get(i);
+            users.add(new User(null, dto.getUsername(), dto.getEmail(), null));
+            passwords.add(dto.getPassword());
+        }
+        List<String> hashes = passwordHashingService.hashAll(passwords);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setPassword(hashes.get(i));
+        }
+        userRepository.saveAll(users);
+        userLookupService.invalidateAll(users);
+
+        int created = 0;
+        for (int i = 0; i < outcome.length; i++) {
+            if (outcome[i] == null) {
+                outcome[i] = BatchItemResultDto.created(firstIndex + i, users.get(created++).getId());
+            }
+            results.write(outcome[i]);
+        }
+        results.flush();
+        chunk.clear();
+    }
+
+    private static String validate(UserCreateDto dto) {
+        if (dto == null) {
+            return "Item is not a valid user object";
+        }
+        if (isBlank(dto.getUsername())) {
+            return "username is required";
+        }
+        if (isBlank(dto.getEmail())) {
+            return "email is required";
+        }
+        if (isBlank(dto.getPassword())) {
+            return "password is required";
+        }
+        if (PasswordHashingService.isTooLong(dto.getPassword())) {
+            return "password must not exceed " + PasswordHashingService.MAX_PASSWORD_BYTES + " bytes";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Escribe los resultados como array JSON o NDJSON sobre el mismo generador.
+     */
+    private static final class ResultWriter {
+
+        private final JsonGenerator generator;
+        private final boolean ndjson;
+
+        ResultWriter(JsonGenerator generator, boolean ndjson) {
+            this.generator = generator;
+            this.ndjson = ndjson;
+        }
+
+        void start() throws IOException {
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+        }
+
+        void write(BatchItemResultDto result) throws IOException {
+            generator.writeObject(result);
+            if (ndjson) {
+                generator.writeRaw('\n');
+            }
+        }
+
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        void end() throws IOException {
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+        }
+    }
+}
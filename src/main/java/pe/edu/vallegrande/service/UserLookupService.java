@@ -0,0 +1,136 @@
+package pe.edu.vallegrande.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caché de lectura de {@link UserResponseDto} delante de {@link UserRepository}.
+ * <p>
+ * Caffeine acota el tamaño con W-TinyLFU (admite una entrada nueva solo si es más frecuente que la que
+ * expulsaría, así un recorrido de ids únicos no vacía la caché) y expira cada entrada un tiempo después
+ * de escribirla. Los "no encontrado" también se guardan, con su propio tiempo de vida, para que los 404
+ * repetidos no lleguen al almacenamiento; por eso cada alta debe invalidar sus claves con
+ * {@link #invalidate}. Las métricas se publican como {@code cache.gets}, {@code cache.evictions},
+ * {@code cache.size}, ... con la etiqueta {@code cache=}{@value #CACHE_NAME}.
+ */
+@Service
+public class UserLookupService {
+
+    public static final String CACHE_NAME = "users";
+
+    private final UserRepository userRepository;
+    private final Cache<Key, Optional<UserResponseDto>> cache;
+
+    @Autowired
+    public UserLookupService(UserRepository userRepository,
+                             @Value("${app.users.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${app.users.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                             @Value("${app.users.cache.negative-expire-after-write:30s}") Duration negativeExpireAfterWrite,
+                             MeterRegistry meterRegistry) {
+        this(userRepository, maximumSize, expireAfterWrite, negativeExpireAfterWrite, Ticker.systemTicker(),
+                meterRegistry);
+    }
+
+    UserLookupService(UserRepository userRepository, long maximumSize, Duration expireAfterWrite,
+                      Duration negativeExpireAfterWrite, Ticker ticker, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        Cache<Key, Optional<UserResponseDto>> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new WriteExpiry(expireAfterWrite.toNanos(), negativeExpireAfterWrite.toNanos()))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<UserResponseDto> findById(long id) {
+        return cache.get(new Key(Kind.ID, id), key -> userRepository.findById(id).map(UserResponseDto::from));
+    }
+
+    public Optional<UserResponseDto> findByUsername(String username) {
+        return cache.get(new Key(Kind.USERNAME, username),
+                key -> userRepository.findByUsername(username).map(UserResponseDto::from));
+    }
+
+    public Optional<UserResponseDto> findByEmail(String email) {
+        return cache.get(new Key(Kind.EMAIL, email),
+                key -> userRepository.findByEmail(email).map(UserResponseDto::from));
+    }
+
+    /**
+     * Descarta las entradas (incluidos los "no encontrado") que el usuario recién guardado deja obsoletas.
+     */
+    public void invalidate(User user) {
+        cache.invalidateAll(keys(user, new ArrayList<>(3)));
+    }
+
+    public void invalidateAll(List<User> users) {
+        List<Key> keys = new ArrayList<>(users.size() * 3);
+        for (User user : users) {
+            keys(user, keys);
+        }
+        cache.invalidateAll(keys);
+    }
+
+    /** Ejecuta el mantenimiento pendiente (expulsiones y expiraciones). */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private static List<Key> keys(User user, List<Key> keys) {
+        if (user.getId() != null) {
+            keys.add(new Key(Kind.ID, user.getId()));
+        }
+        if (user.getUsername() != null) {
+            keys.add(new Key(Kind.USERNAME, user.getUsername()));
+        }
+        if (user.getEmail() != null) {
+            keys.add(new Key(Kind.EMAIL, user.getEmail()));
+        }
+        return keys;
+    }
+
+    private enum Kind { ID, USERNAME, EMAIL }
+
+    private record Key(Kind kind, Object value) {
+    }
+
+    /**
+     * Tiempo de vida desde la escritura: uno para los usuarios encontrados y otro (normalmente más corto)
+     * para los "no encontrado". Las lecturas no lo alargan.
+     */
+    private record WriteExpiry(long foundNanos, long missingNanos) implements Expiry<Key, Optional<UserResponseDto>> {
+
+        @Override
+        public long expireAfterCreate(Key key, Optional<UserResponseDto> value, long currentTime) {
+            return value.isPresent() ? foundNanos : missingNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Optional<UserResponseDto> value, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Optional<UserResponseDto> value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
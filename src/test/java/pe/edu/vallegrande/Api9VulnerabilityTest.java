@@ -10,7 +10,8 @@ import org.springframework.http.ResponseEntity;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Despliegue que no aplica la retirada: V1 y /legacy/* siguen atendiéndose
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.sunset.enforce=false")
 public class Api9VulnerabilityTest {
 
     @LocalServerPort
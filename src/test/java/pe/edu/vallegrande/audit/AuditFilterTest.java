@@ -0,0 +1,116 @@
+package pe.edu.vallegrande.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class AuditFilterTest {
+
+    private static final Path AUDIT_DIRECTORY = createDirectory();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void auditProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.audit.directory", AUDIT_DIRECTORY::toString);
+    }
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    @Test
+    public void testAuditedEndpointsAreRecordedEvenWhenGone() throws Exception {
+        long before = auditLog.written();
+
+        ResponseEntity<String> response = restTemplate.getForEntity(createUrl("/legacy/internal/config"), String.class);
+        restTemplate.getForEntity(createUrl("/api/users/admin/debug"), String.class);
+
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+        List<JsonNode> records = awaitRecords(before + 2);
+        JsonNode config = find(records, "/legacy/internal/config");
+        assertEquals("GET", config.get("method").asText());
+        assertEquals("legacy", config.get("version").asText());
+        assertEquals("LegacyApiController#getInternalConfig", config.get("handler").asText());
+        assertEquals(410, config.get("status").asInt());
+        assertFalse(config.get("client").asText().isEmpty());
+        assertTrue(config.get("durationMicros").asLong() >= 0);
+        assertTrue(config.get("timestamp").asText().endsWith("Z"));
+
+        JsonNode debug = find(records, "/api/users/admin/debug");
+        assertEquals("v1", debug.get("version").asText());
+        assertEquals("UserControllerV1#getDebugInfo", debug.get("handler").asText());
+    }
+
+    @Test
+    public void testOtherEndpointsAreNotAudited() throws Exception {
+        restTemplate.getForEntity(createUrl("/legacy/test"), String.class);
+        long before = auditLog.written();
+
+        restTemplate.getForEntity(createUrl("/api/v2/users/1"), String.class);
+        restTemplate.getForEntity(createUrl("/legacy/old-endpoint"), String.class);
+        restTemplate.getForEntity(createUrl("/legacy/test"), String.class);
+
+        List<JsonNode> records = awaitRecords(before + 1);
+        assertTrue(records.stream().noneMatch(record -> record.get("endpoint").asText().startsWith("/api/v2")));
+        assertTrue(records.stream().noneMatch(record -> record.get("endpoint").asText().equals("/legacy/old-endpoint")));
+        assertEquals(0, auditLog.dropped());
+    }
+
+    private List<JsonNode> awaitRecords(long written) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        // El consumidor escribe el lote cuando el buffer queda vacío
+        while (auditLog.written() < written) {
+            assertTrue(System.nanoTime() < deadline, "Audit records were not written in time");
+            Thread.sleep(10);
+        }
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : Files.readAllLines(AUDIT_DIRECTORY.resolve(AuditLogWriter.FILE_NAME))) {
+            records.add(objectMapper.readTree(line));
+        }
+        return records;
+    }
+
+    private static JsonNode find(List<JsonNode> records, String endpoint) {
+        return records.stream()
+                .filter(record -> record.get("endpoint").asText().equals(endpoint))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No audit record for " + endpoint));
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("audit-filter-test");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
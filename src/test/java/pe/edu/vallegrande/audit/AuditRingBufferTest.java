@@ -0,0 +1,104 @@
+package pe.edu.vallegrande.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditRingBufferTest {
+
+    private static final AuditedEndpoint ENDPOINT =
+            AuditedEndpoint.of("GET", "/legacy/test", "legacy", "LegacyApiController#testEndpoint");
+
+    @Test
+    public void testDrainDeliversRecordsInPublishOrder() {
+        AuditRingBuffer ring = new AuditRingBuffer(8);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ring.publish(ENDPOINT, "client-" + i, 200, i, i * 1000L));
+        }
+
+        List<String> clients = new ArrayList<>();
+        assertEquals(3, ring.drain(slot -> clients.add(slot.client), 3));
+        assertEquals(2, ring.drain(slot -> clients.add(slot.client), 10));
+        assertEquals(0, ring.drain(slot -> clients.add(slot.client), 10));
+
+        assertEquals(List.of("client-0", "client-1", "client-2", "client-3", "client-4"), clients);
+        assertEquals(0, ring.backlog());
+    }
+
+    @Test
+    public void testFullBufferDropsInsteadOfBlocking() {
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.publish(ENDPOINT, "client", 200, i, 0));
+        }
+
+        assertFalse(ring.publish(ENDPOINT, "client", 200, 4, 0));
+        assertFalse(ring.publish(ENDPOINT, "client", 200, 5, 0));
+        assertEquals(2, ring.dropped());
+        assertEquals(4, ring.backlog());
+
+        // Al consumir se liberan las ranuras y se vuelve a aceptar
+        ring.drain(slot -> { }, 2);
+        assertTrue(ring.publish(ENDPOINT, "client", 200, 6, 0));
+        assertEquals(3, ring.backlog());
+    }
+
+    @Test
+    public void testFailingConsumerDoesNotRedeliverRecords() {
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        ring.publish(ENDPOINT, "a", 200, 0, 0);
+        ring.publish(ENDPOINT, "b", 200, 1, 0);
+
+        assertThrows(IllegalStateException.class, () -> ring.drain(slot -> {
+            throw new IllegalStateException("disk full");
+        }, 10));
+
+        List<String> clients = new ArrayList<>();
+        ring.drain(slot -> clients.add(slot.client), 10);
+        assertEquals(List.of("b"), clients);
+    }
+
+    @Test
+    public void testConcurrentProducersNeverLoseOrDuplicateAcceptedRecords() throws InterruptedException {
+        AuditRingBuffer ring = new AuditRingBuffer(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.publish(ENDPOINT, "client", 200, base + i, 0);
+                }
+                done.countDown();
+            });
+            producer.start();
+        }
+
+        Set<Long> seen = new HashSet<>();
+        long[] duplicates = new long[1];
+        while (done.getCount() > 0 || ring.backlog() > 0) {
+            ring.drain(slot -> {
+                if (!seen.add(slot.timestampMillis)) {
+                    duplicates[0]++;
+                }
+            }, 256);
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(0, duplicates[0]);
+        assertEquals((long) producers * perProducer, seen.size() + ring.dropped());
+    }
+
+    @Test
+    public void testCapacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer(1000));
+    }
+}
@@ -0,0 +1,41 @@
+package pe.edu.vallegrande.config;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.service.OpenAPIService;
+import org.springdoc.webmvc.api.OpenApiWebMvcResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pe.edu.vallegrande.controller.secure.UserControllerV2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// springdoc solo se activa en tiempo de ejecución con el perfil dev
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("dev")
+public class OpenApiConfigTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    private boolean isLazy(Class<?> type) {
+        String[] names = beanFactory.getBeanNamesForType(type, true, false);
+        assertTrue(names.length > 0, type.getSimpleName());
+        for (String name : names) {
+            if (!beanFactory.getBeanDefinition(name).isLazyInit()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void testOpenApiBeansAreLazy() {
+        assertTrue(isLazy(OpenAPI.class));
+        assertTrue(isLazy(OpenAPIService.class));
+        assertTrue(isLazy(OpenApiWebMvcResource.class));
+        assertFalse(isLazy(UserControllerV2.class), "Application controllers stay eager");
+    }
+}
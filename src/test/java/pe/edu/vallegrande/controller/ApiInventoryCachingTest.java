@@ -0,0 +1,69 @@
+package pe.edu.vallegrande.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ApiInventoryCachingTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    @Test
+    public void testInventoryIsServedWithStrongEtag() {
+        ResponseEntity<String> first = restTemplate.getForEntity(createUrl("/api/v2/inventory"), String.class);
+        ResponseEntity<String> second = restTemplate.getForEntity(createUrl("/api/v2/inventory"), String.class);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"), "Inventory ETag should be strong");
+        assertEquals(etag, second.getHeaders().getETag());
+        assertEquals(first.getBody(), second.getBody());
+        assertTrue(first.getHeaders().getCacheControl().contains("max-age"));
+    }
+
+    @Test
+    public void testConditionalRequestReturnsNotModified() {
+        for (String endpoint : new String[]{"/api/v2/inventory", "/api/v2/inventory/deprecated"}) {
+            String etag = restTemplate.getForEntity(createUrl(endpoint), String.class).getHeaders().getETag();
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setIfNoneMatch(etag);
+            ResponseEntity<String> response = restTemplate.exchange(
+                    createUrl(endpoint), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+            assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode(), endpoint);
+            assertNull(response.getBody());
+            assertEquals(etag, response.getHeaders().getETag());
+        }
+    }
+
+    @Test
+    public void testStaleEtagReturnsFullDocument() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"stale\"");
+        ResponseEntity<String> response = restTemplate.exchange(
+                createUrl("/api/v2/inventory/deprecated"), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("removalDate"));
+    }
+}
@@ -0,0 +1,101 @@
+package pe.edu.vallegrande.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import pe.edu.vallegrande.inventory.InventoryDocument;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.http2.enabled=true", "app.sunset.enforce=false"})
+public class ResponseCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // El cliente del JDK no descomprime: permite ver los bytes tal como llegan
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    private HttpResponse<byte[]> get(String endpoint, String... headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(createUrl(endpoint)));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] gunzip(byte[] body) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testInventoryIsServedPrecompressed() throws Exception {
+        HttpResponse<byte[]> plain = get("/api/v2/inventory");
+        HttpResponse<byte[]> gzip = get("/api/v2/inventory", "Accept-Encoding", "gzip");
+
+        assertEquals(200, gzip.statusCode());
+        assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(gzip.headers().firstValue("Vary").orElseThrow().contains("Accept-Encoding"));
+        assertArrayEquals(plain.body(), gunzip(gzip.body()));
+        assertTrue(gzip.body().length < plain.body().length);
+
+        String plainEtag = plain.headers().firstValue("ETag").orElseThrow();
+        String gzipEtag = gzip.headers().firstValue("ETag").orElseThrow();
+        assertNotEquals(plainEtag, gzipEtag, "Each representation needs its own strong ETag");
+
+        HttpResponse<byte[]> revalidated = get("/api/v2/inventory",
+                "Accept-Encoding", "gzip", "If-None-Match", gzipEtag);
+        assertEquals(304, revalidated.statusCode());
+        assertEquals(gzipEtag, revalidated.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    public void testLargeUserPagesAreCompressedAndTinyBodiesAreNot() throws Exception {
+        HttpResponse<byte[]> page = get("/api/v2/users?limit=1000", "Accept-Encoding", "gzip");
+        assertEquals(200, page.statusCode());
+        assertEquals("gzip", page.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(objectMapper.readTree(gunzip(page.body())).isArray());
+
+        HttpResponse<byte[]> legacy = get("/legacy/test", "Accept-Encoding", "gzip");
+        assertEquals(200, legacy.statusCode());
+        assertTrue(legacy.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals("Test endpoint - should not be in production", new String(legacy.body()));
+    }
+
+    @Test
+    public void testHttp2CleartextUpgrade() throws Exception {
+        HttpResponse<byte[]> response = get("/api/v2/inventory");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(HttpClient.Version.HTTP_2, response.version());
+    }
+
+    @Test
+    public void testAcceptEncodingNegotiation() {
+        assertTrue(InventoryDocument.acceptsGzip("gzip"));
+        assertTrue(InventoryDocument.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(InventoryDocument.acceptsGzip("*"));
+        assertFalse(InventoryDocument.acceptsGzip("gzip;q=0"));
+        assertFalse(InventoryDocument.acceptsGzip("br, deflate"));
+        assertFalse(InventoryDocument.acceptsGzip(null));
+    }
+}
@@ -0,0 +1,125 @@
+package pe.edu.vallegrande.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import pe.edu.vallegrande.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.users.password.bcrypt-strength=4")
+@DirtiesContext
+public class UserBatchTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ResponseEntity<String> post(String body, String contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, contentType);
+        return restTemplate.postForEntity("http://localhost:" + port + "/api/v2/users:batch",
+                new HttpEntity<>(body, headers), String.class);
+    }
+
+    @Test
+    public void testJsonArrayBatchReturnsPerItemResults() throws Exception {
+        long before = userRepository.count();
+        ResponseEntity<String> response = post("""
+                [{"username":"batch-a","email":"a@example.com","password":"pa"},
+                 {"username":"","email":"b@example.com","password":"pb"},
+                 {"username":"batch-c","email":"c@example.com","password":"pc"},
+                 42]
+                """, MediaType.APPLICATION_JSON_VALUE);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode results = objectMapper.readTree(response.getBody());
+        assertEquals(4, results.size());
+        assertEquals(201, results.get(0).get("status").asInt());
+        assertEquals(400, results.get(1).get("status").asInt());
+        assertEquals("username is required", results.get(1).get("error").asText());
+        assertEquals(201, results.get(2).get("status").asInt());
+        assertEquals(400, results.get(3).get("status").asInt());
+        assertEquals(before + 2, userRepository.count());
+
+        long id = results.get(2).get("id").asLong();
+        assertEquals("batch-c", userRepository.findById(id).orElseThrow().getUsername());
+        assertEquals(id, userRepository.findByEmail("c@example.com").orElseThrow().getId());
+        assertTrue(userRepository.findById(id).orElseThrow().getPassword().startsWith("$2a$04$"));
+        assertFalse(response.getBody().contains("pa"));
+    }
+
+    @Test
+    public void testNdjsonBatchStreamsNdjsonResults() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            body.append("{\"username\":\"nd-").append(i).append("\",\"email\":\"nd-").append(i)
+                    .append("@example.com\",\"password\":\"pwd\"}\n");
+        }
+
+        ResponseEntity<String> response = post(body.toString(), "application/x-ndjson");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getContentType().toString().startsWith("application/x-ndjson"));
+        String[] lines = response.getBody().split("\n");
+        assertEquals(2500, lines.length);
+        long previousId = 0;
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode result = objectMapper.readTree(lines[i]);
+            assertEquals(i, result.get("index").asInt());
+            assertEquals(201, result.get("status").asInt());
+            assertTrue(result.get("id").asLong() > previousId);
+            previousId = result.get("id").asLong();
+        }
+        assertTrue(userRepository.findByUsername("nd-2499").isPresent());
+    }
+
+    @Test
+    public void testMalformedJsonKeepsItemsReadSoFar() throws Exception {
+        ResponseEntity<String> response = post(
+                "[{\"username\":\"ok-1\",\"email\":\"ok-1@example.com\",\"password\":\"p\"}, {\"username\": ",
+                MediaType.APPLICATION_JSON_VALUE);
+
+        JsonNode results = objectMapper.readTree(response.getBody());
+        assertEquals(2, results.size());
+        assertEquals(201, results.get(0).get("status").asInt());
+        assertEquals(400, results.get(1).get("status").asInt());
+        assertTrue(results.get(1).get("error").asText().startsWith("Malformed JSON"));
+        assertTrue(userRepository.findByUsername("ok-1").isPresent());
+    }
+
+    @Test
+    public void testTooLongPasswordIsAnItemError() throws Exception {
+        ResponseEntity<String> response = post("""
+                [{"username":"long-1","email":"long-1@example.com","password":"%s"},
+                 {"username":"long-2","email":"long-2@example.com","password":"p"}]
+                """.formatted("p".repeat(73)), MediaType.APPLICATION_JSON_VALUE);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode results = objectMapper.readTree(response.getBody());
+        assertEquals(2, results.size());
+        assertEquals(400, results.get(0).get("status").asInt());
+        assertEquals("password must not exceed 72 bytes", results.get(0).get("error").asText());
+        assertEquals(201, results.get(1).get("status").asInt());
+        assertTrue(userRepository.findByUsername("long-1").isEmpty());
+    }
+}
@@ -0,0 +1,142 @@
+package pe.edu.vallegrande.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import pe.edu.vallegrande.dto.UserCreateDto;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.inventory.InventoryService;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+public class UserControllerV3Test {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    @Test
+    public void testGetUserByIdMatchesV2() {
+        ResponseEntity<String> v2 = restTemplate.getForEntity(createUrl("/api/v2/users/1"), String.class);
+        ResponseEntity<String> v3 = restTemplate.getForEntity(createUrl("/api/v3/users/1"), String.class);
+
+        assertEquals(HttpStatus.OK, v3.getStatusCode());
+        assertEquals(v2.getBody(), v3.getBody());
+        assertFalse(v3.getBody().contains("password"));
+
+        ResponseEntity<String> missing = restTemplate.getForEntity(createUrl("/api/v3/users/999999"), String.class);
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+    }
+
+    @Test
+    public void testPagesCarryTheNextCursor() {
+        for (int i = 0; i < 15; i++) {
+            userRepository.save(new User(null, "v3-page-" + i, "v3-page-" + i + "@example.com", "pwd"));
+        }
+
+        ResponseEntity<UserResponseDto[]> first = restTemplate.getForEntity(
+                createUrl("/api/v3/users?limit=5"), UserResponseDto[].class);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(5, first.getBody().length);
+        String cursor = first.getHeaders().getFirst("X-Next-Cursor");
+        assertEquals(String.valueOf(first.getBody()[4].getId()), cursor);
+        String link = first.getHeaders().getFirst(HttpHeaders.LINK);
+        assertTrue(link.contains("/api/v3/users") && link.contains("after=" + cursor) && link.endsWith("rel=\"next\""));
+
+        ResponseEntity<UserResponseDto[]> v2 = restTemplate.getForEntity(
+                createUrl("/api/v2/users?limit=5&after=" + cursor), UserResponseDto[].class);
+        ResponseEntity<UserResponseDto[]> next = restTemplate.getForEntity(
+                createUrl("/api/v3/users?limit=5&after=" + cursor), UserResponseDto[].class);
+        assertEquals(v2.getBody()[0].getId(), next.getBody()[0].getId());
+
+        ResponseEntity<String> invalid = restTemplate.getForEntity(createUrl("/api/v3/users?limit=0"), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatusCode());
+    }
+
+    @Test
+    public void testStreamsEveryUserAsNdjson() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.parseMediaType("application/x-ndjson")));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                createUrl("/api/v3/users"), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getContentType()
+                .isCompatibleWith(MediaType.parseMediaType("application/x-ndjson")));
+        String[] lines = response.getBody().strip().split("\n");
+        assertEquals(userRepository.count(), lines.length);
+        long previousId = 0;
+        for (String line : lines) {
+            UserResponseDto dto = objectMapper.readValue(line, UserResponseDto.class);
+            assertTrue(dto.getId() > previousId, "Users must be streamed in id order");
+            previousId = dto.getId();
+        }
+        assertFalse(response.getBody().contains("password"));
+    }
+
+    @Test
+    public void testSearchAndCreate() {
+        UserCreateDto dto = new UserCreateDto();
+        dto.setUsername("v3-created");
+        dto.setEmail("v3-created@example.com");
+        dto.setPassword("secret-v3");
+
+        ResponseEntity<UserResponseDto> created = restTemplate.postForEntity(
+                createUrl("/api/v3/users"), dto, UserResponseDto.class);
+
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        assertNotNull(created.getBody().getId());
+        assertNotEquals("secret-v3", userRepository.findById(created.getBody().getId()).orElseThrow().getPassword());
+
+        ResponseEntity<UserResponseDto[]> found = restTemplate.getForEntity(
+                createUrl("/api/v3/users/search?q=v3-created"), UserResponseDto[].class);
+        assertEquals(HttpStatus.OK, found.getStatusCode());
+        assertEquals(1, found.getBody().length);
+        assertEquals(created.getBody().getId(), found.getBody()[0].getId());
+
+        ResponseEntity<String> blank = restTemplate.getForEntity(
+                URI.create(createUrl("/api/v3/users/search?q=%20")), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, blank.getStatusCode());
+    }
+
+    @Test
+    public void testInventoryListsV3AsItsOwnVersion() {
+        assertEquals(InventoryService.STATUS_CURRENT, inventoryService.getInventory().versions().get("v3").status());
+        assertTrue(inventoryService.getInventory().endpoints().stream()
+                .anyMatch(e -> e.version().equals("v3") && e.path().equals("/api/v3/users/{id}")));
+    }
+}
@@ -0,0 +1,75 @@
+package pe.edu.vallegrande.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import pe.edu.vallegrande.dto.UserCreateDto;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+import pe.edu.vallegrande.service.PasswordHashingService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class UserCreationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    @Test
+    public void testCreatedUserPasswordIsHashed() {
+        ResponseEntity<UserResponseDto> response = restTemplate.postForEntity(
+                createUrl("/api/v2/users"), new UserCreateDto("hashed-user", "hashed-user@example.com", "s3cret"), UserResponseDto.class);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("hashed-user", response.getBody().getUsername());
+
+        User stored = userRepository.findById(response.getBody().getId()).orElseThrow();
+        assertNotEquals("s3cret", stored.getPassword());
+        assertTrue(stored.getPassword().startsWith("$2a$"));
+        assertTrue(passwordHashingService.matches("s3cret", stored.getPassword()));
+    }
+
+    @Test
+    public void testMissingPasswordIsRejected() {
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                createUrl("/api/v2/users"), new UserCreateDto("no-password", "no-password@example.com", " "), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(userRepository.findByUsername("no-password").isEmpty());
+    }
+
+    @Test
+    public void testPasswordLongerThan72BytesIsRejected() {
+        // 40 caracteres pero 80 bytes en UTF-8
+        String password = "ñ".repeat(40);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                createUrl("/api/v2/users"), new UserCreateDto("long-password", "long-password@example.com", password), String.class);
+        ResponseEntity<String> v3 = restTemplate.postForEntity(
+                createUrl("/api/v3/users"), new UserCreateDto("long-password", "long-password@example.com", password), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, v3.getStatusCode());
+        assertTrue(userRepository.findByUsername("long-password").isEmpty());
+        assertFalse(PasswordHashingService.isTooLong("x".repeat(PasswordHashingService.MAX_PASSWORD_BYTES)));
+    }
+}
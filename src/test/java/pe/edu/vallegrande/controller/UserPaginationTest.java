@@ -0,0 +1,117 @@
+package pe.edu.vallegrande.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+public class UserPaginationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    @Test
+    public void testCursorPaginationWalksAllUsers() {
+        for (int i = 0; i < 25; i++) {
+            userRepository.save(new User(null, "page-user-" + i, "page-user-" + i + "@example.com", "pwd"));
+        }
+
+        String url = createUrl("/api/v2/users?limit=10");
+        int pages = 0;
+        long seen = 0;
+        long previousId = 0;
+        while (url != null) {
+            ResponseEntity<UserResponseDto[]> response = restTemplate.getForEntity(url, UserResponseDto[].class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            UserResponseDto[] page = response.getBody();
+            assertNotNull(page);
+            assertTrue(page.length <= 10, "Page must honor the limit");
+            for (UserResponseDto dto : page) {
+                assertTrue(dto.getId() > previousId, "Users must be ordered by id");
+                previousId = dto.getId();
+            }
+            seen += page.length;
+            pages++;
+
+            String cursor = response.getHeaders().getFirst("X-Next-Cursor");
+            String link = response.getHeaders().getFirst(HttpHeaders.LINK);
+            if (cursor == null) {
+                assertNull(link);
+                url = null;
+            } else {
+                assertEquals(String.valueOf(page[page.length - 1].getId()), cursor);
+                assertTrue(link.contains("after=" + cursor) && link.endsWith("rel=\"next\""));
+                url = createUrl("/api/v2/users?limit=10&after=" + cursor);
+            }
+        }
+
+        assertEquals(userRepository.count(), seen);
+        assertTrue(pages >= 3);
+    }
+
+    @Test
+    public void testInvalidLimitIsRejected() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                createUrl("/api/v2/users?limit=0"), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testOutOfRangeCursorIsRejected() {
+        HttpHeaders ndjson = new HttpHeaders();
+        ndjson.set(HttpHeaders.ACCEPT, "application/x-ndjson");
+
+        for (String after : new String[]{"-1", String.valueOf(UserRepository.MAX_ID), String.valueOf(Long.MAX_VALUE)}) {
+            for (String path : new String[]{"/api/v2/users", "/api/v3/users"}) {
+                assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                        createUrl(path + "?after=" + after), String.class).getStatusCode(), path + " after=" + after);
+                assertEquals(HttpStatus.BAD_REQUEST, restTemplate.exchange(createUrl(path + "?after=" + after),
+                        HttpMethod.GET, new HttpEntity<>(ndjson), String.class).getStatusCode(), path + " after=" + after);
+                assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                        createUrl(path + "/search?q=admin&after=" + after), String.class).getStatusCode());
+            }
+        }
+    }
+
+    @Test
+    public void testNdjsonStreamingWritesOneUserPerLine() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT, "application/x-ndjson");
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                createUrl("/api/v2/users?limit=2"), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getContentType().toString().startsWith("application/x-ndjson"));
+        String[] lines = response.getBody().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+        assertFalse(response.getBody().contains("password"));
+    }
+}
@@ -0,0 +1,79 @@
+package pe.edu.vallegrande.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+public class UserSearchTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    @Test
+    public void testSubstringSearchIsPaginatedByCursor() {
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(new User(null, "search-" + i, "search-" + i + "@uni.edu.pe", "pwd"));
+        }
+
+        ResponseEntity<UserResponseDto[]> first = restTemplate.getForEntity(
+                createUrl("/api/v2/users/search?q=UNI.EDU&limit=3"), UserResponseDto[].class);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(3, first.getBody().length);
+        assertEquals("search-0", first.getBody()[0].getUsername());
+        String cursor = first.getHeaders().getFirst("X-Next-Cursor");
+        assertEquals(String.valueOf(first.getBody()[2].getId()), cursor);
+
+        ResponseEntity<UserResponseDto[]> second = restTemplate.getForEntity(
+                createUrl("/api/v2/users/search?q=UNI.EDU&limit=3&after=" + cursor), UserResponseDto[].class);
+        assertEquals(2, second.getBody().length);
+        assertNull(second.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    public void testPrefixSearchAndPasswordsAreNotExposed() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                createUrl("/api/v2/users/search?q=adm&match=prefix"), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"username\":\"admin\""));
+        assertFalse(response.getBody().contains("password"));
+        assertEquals("[]", restTemplate.getForEntity(
+                createUrl("/api/v2/users/search?q=min&match=prefix"), String.class).getBody());
+    }
+
+    @Test
+    public void testInvalidQueriesAreRejected() {
+        // Con URI la consulta llega tal cual; como String, TestRestTemplate codificaría otra vez el %
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                URI.create(createUrl("/api/v2/users/search?q=%20")), String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                createUrl("/api/v2/users/search?q=admin&match=regex"), String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                createUrl("/api/v2/users/search?q=admin&limit=0"), String.class).getStatusCode());
+    }
+}
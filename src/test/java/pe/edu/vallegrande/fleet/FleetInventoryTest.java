@@ -0,0 +1,122 @@
+package pe.edu.vallegrande.fleet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.fleet.aggregator.enabled=true",
+        "app.fleet.token=" + FleetInventoryTest.TOKEN
+})
+public class FleetInventoryTest {
+
+    static final String TOKEN = "fleet-secret";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FleetReporter fleetReporter;
+
+    @Autowired
+    private FleetAggregator fleetAggregator;
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    @Test
+    public void testAggregatorReportsItsOwnInventory() throws Exception {
+        assertTrue(fleetReporter.syncNow().applied());
+
+        FleetInventory fleet = getFleet();
+
+        assertTrue(fleet.instances() >= 1);
+        FleetInventory.Version legacy = fleet.versions().get("legacy");
+        assertNotNull(legacy);
+        assertEquals("SUNSET", legacy.status());
+        assertFalse(legacy.instances().isEmpty());
+    }
+
+    @Test
+    public void testPeerSyncsDeltasOverHttp() throws Exception {
+        EndpointState users = new EndpointState("GET", "/api/v2/users", "v2", 40);
+        InstanceSnapshot[] state = {new InstanceSnapshot(Map.of(users.key(), users), Map.of())};
+        FleetReporter peer = new FleetReporter(() -> state[0],
+                new HttpFleetTransport(createUrl(""), TOKEN, objectMapper), "peer:9001", Duration.ofSeconds(10));
+
+        assertTrue(peer.syncNow().applied());
+        EndpointState busier = new EndpointState("GET", "/api/v2/users", "v2", 45);
+        state[0] = new InstanceSnapshot(Map.of(busier.key(), busier), Map.of());
+        SyncAck ack = peer.syncNow();
+
+        assertTrue(ack.applied());
+        assertEquals(2, ack.revision());
+        FleetInventory fleet = getFleet();
+        FleetInventory.Member member = fleet.members().stream()
+                .filter(m -> m.instanceId().equals("peer:9001"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, member.revision());
+        assertTrue(fleet.versions().get("v2").instances().contains("peer:9001"));
+    }
+
+    @Test
+    public void testSyncRequiresTokenAndMatchingRevision() {
+        InventoryDelta unknownBase = new InventoryDelta("ghost:9002", 7, 8, 0, null, null, null, null);
+
+        ResponseEntity<SyncAck> withoutToken = restTemplate.postForEntity(
+                createUrl("/api/v2/fleet/sync"), unknownBase, SyncAck.class);
+        assertEquals(HttpStatus.UNAUTHORIZED, withoutToken.getStatusCode());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(FleetAggregator.TOKEN_HEADER, TOKEN);
+        ResponseEntity<SyncAck> conflict = restTemplate.exchange(createUrl("/api/v2/fleet/sync"),
+                HttpMethod.POST, new HttpEntity<>(unknownBase, headers), SyncAck.class);
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+        assertNotNull(conflict.getBody());
+        assertFalse(conflict.getBody().applied());
+        assertEquals(0, conflict.getBody().revision());
+    }
+
+    @Test
+    public void testIncompleteDeltaIsRejected() {
+        EndpointState noVersion = new EndpointState("GET", "/legacy/test", null, 1);
+        InventoryDelta delta = new InventoryDelta("broken:9003", 0, 1, 0,
+                Map.of(noVersion.key(), noVersion), null, null, null);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(FleetAggregator.TOKEN_HEADER, TOKEN);
+        ResponseEntity<SyncAck> response = restTemplate.exchange(createUrl("/api/v2/fleet/sync"),
+                HttpMethod.POST, new HttpEntity<>(delta, headers), SyncAck.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private FleetInventory getFleet() throws Exception {
+        // Sin esperar al publish-interval
+        fleetAggregator.publishIfDirty();
+        ResponseEntity<byte[]> response = restTemplate.getForEntity(createUrl("/api/v2/fleet/inventory"), byte[].class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return objectMapper.readValue(response.getBody(), FleetInventory.class);
+    }
+}
@@ -0,0 +1,274 @@
+package pe.edu.vallegrande.fleet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FleetSyncTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final int MAX_INSTANCES = 3;
+    private static final int MAX_ENDPOINTS = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private FleetAggregator aggregator = newAggregator();
+
+    @Test
+    public void testOnlyChangedEntriesAreSentAfterTheFirstSync() throws IOException {
+        Instance a = new Instance("a:8090");
+        a.endpoint("GET", "/api/v2/users", "v2", 10);
+        a.endpoint("GET", "/legacy/test", "legacy", 3);
+        a.version("v2", "CURRENT", 0);
+
+        assertTrue(a.reporter.syncNow().applied());
+        InventoryDelta full = a.last();
+        assertEquals(0, full.baseRevision());
+        assertEquals(2, full.endpoints().size());
+
+        a.endpoint("GET", "/api/v2/users", "v2", 15);
+        assertTrue(a.reporter.syncNow().applied());
+        InventoryDelta delta = a.last();
+        assertEquals(1, delta.baseRevision());
+        assertEquals(2, delta.revision());
+        assertEquals(List.of("GET /api/v2/users"), List.copyOf(delta.endpoints().keySet()));
+        assertTrue(delta.versions().isEmpty());
+
+        // Sin cambios: latido vacío con la misma revisión
+        assertTrue(a.reporter.syncNow().applied());
+        assertTrue(a.last().isEmpty());
+        assertEquals(2, a.last().revision());
+
+        assertEquals(15, endpoint(fleet(), "/api/v2/users").requests());
+    }
+
+    @Test
+    public void testInventoryIsMergedAcrossInstances() throws IOException {
+        Instance a = new Instance("a:8090");
+        a.endpoint("GET", "/legacy/test", "legacy", 3);
+        a.version("legacy", "SUNSET", 7);
+        Instance b = new Instance("b:8091");
+        b.endpoint("GET", "/legacy/test", "legacy", 4);
+        b.endpoint("GET", "/api/v2/users", "v2", 1);
+        b.version("legacy", "DEPRECATED", 0);
+        a.reporter.syncNow();
+        b.reporter.syncNow();
+
+        FleetInventory fleet = fleet();
+        assertEquals(2, fleet.instances());
+        FleetInventory.Endpoint legacy = endpoint(fleet, "/legacy/test");
+        assertEquals(2, legacy.instances());
+        assertEquals(7, legacy.requests());
+        FleetInventory.Version version = fleet.versions().get("legacy");
+        assertEquals(FleetAggregator.STATUS_MIXED, version.status());
+        assertEquals(List.of("a:8090", "b:8091"), version.instances());
+        assertEquals(7, version.gone());
+
+        // b retira la versión legacy: deja de figurar como instancia que la expone
+        b.endpoints.remove("GET /legacy/test");
+        b.versions.remove("legacy");
+        b.reporter.syncNow();
+        assertEquals(List.of("GET /legacy/test"), b.last().removedEndpoints());
+
+        fleet = fleet();
+        version = fleet.versions().get("legacy");
+        assertEquals("SUNSET", version.status());
+        assertEquals(List.of("a:8090"), version.instances());
+        assertEquals(3, endpoint(fleet, "/legacy/test").requests());
+    }
+
+    @Test
+    public void testAggregatorRestartTriggersFullSnapshot() throws IOException {
+        Instance a = new Instance("a:8090");
+        a.endpoint("GET", "/api/v2/users", "v2", 1);
+        a.reporter.syncNow();
+        a.endpoint("GET", "/api/v2/users", "v2", 2);
+        a.reporter.syncNow();
+        assertEquals(2, a.reporter.ackedRevision());
+
+        aggregator = newAggregator();
+        a.sent.clear();
+        SyncAck ack = a.reporter.syncNow();
+
+        assertTrue(ack.applied());
+        assertEquals(2, a.sent.size());
+        assertEquals(2, a.sent.get(0).baseRevision());
+        assertEquals(0, a.sent.get(1).baseRevision());
+        assertEquals(1, a.sent.get(1).endpoints().size());
+        assertEquals(1, a.reporter.ackedRevision());
+        assertEquals(2, endpoint(fleet(), "/api/v2/users").requests());
+    }
+
+    @Test
+    public void testHashMismatchDropsTheInstance() throws IOException {
+        Instance a = new Instance("a:8090");
+        a.endpoint("GET", "/api/v2/users", "v2", 1);
+        a.reporter.syncNow();
+
+        EndpointState changed = new EndpointState("GET", "/api/v2/users", "v2", 5);
+        SyncAck ack = aggregator.apply(new InventoryDelta("a:8090", 1, 2, 12345L,
+                Map.of(changed.key(), changed), null, null, null));
+
+        assertFalse(ack.applied());
+        assertEquals(0, ack.revision());
+        assertEquals(0, fleet().instances());
+        assertTrue(fleet().endpoints().isEmpty());
+
+        // El siguiente envío de la instancia se rechaza y se recupera con el estado completo
+        assertTrue(a.reporter.syncNow().applied());
+        assertEquals(1, fleet().instances());
+    }
+
+    @Test
+    public void testStaleInstancesAreEvicted() throws IOException {
+        Instance a = new Instance("a:8090");
+        a.endpoint("GET", "/api/v2/users", "v2", 1);
+        Instance b = new Instance("b:8091");
+        b.endpoint("GET", "/api/v2/users", "v2", 1);
+        a.reporter.syncNow();
+        b.reporter.syncNow();
+
+        clock.addAndGet(TIMEOUT.toMillis() / 2);
+        b.reporter.syncNow();
+        clock.addAndGet(TIMEOUT.toMillis() / 2 + 1);
+
+        assertEquals(1, aggregator.evictStale());
+        FleetInventory fleet = fleet();
+        assertEquals(List.of("b:8091"), fleet.members().stream().map(FleetInventory.Member::instanceId).toList());
+        assertEquals(1, endpoint(fleet, "/api/v2/users").instances());
+    }
+
+    @Test
+    public void testDocumentIsOnlyRebuiltOnChange() throws IOException {
+        Instance a = new Instance("a:8090");
+        a.endpoint("GET", "/api/v2/users", "v2", 1);
+        a.reporter.syncNow();
+        aggregator.publishIfDirty();
+        Object document = aggregator.getDocument();
+
+        a.reporter.syncNow();
+        aggregator.publishIfDirty();
+
+        assertSame(document, aggregator.getDocument());
+    }
+
+    @Test
+    public void testDeltasAreCoalescedUntilTheNextPublish() throws IOException {
+        Instance a = new Instance("a:8090");
+        a.endpoint("GET", "/api/v2/users", "v2", 1);
+        a.reporter.syncNow();
+        aggregator.publishIfDirty();
+        Object document = aggregator.getDocument();
+
+        for (int requests = 2; requests <= 5; requests++) {
+            a.endpoint("GET", "/api/v2/users", "v2", requests);
+            assertTrue(a.reporter.syncNow().applied());
+        }
+
+        // Aplicar deltas no reconstruye el documento: se hace una sola vez al publicar
+        assertSame(document, aggregator.getDocument());
+        assertEquals(5, endpoint(fleet(), "/api/v2/users").requests());
+        assertNotSame(document, aggregator.getDocument());
+    }
+
+    @Test
+    public void testInvalidDeltaIsRejectedWithoutTouchingState() throws IOException {
+        Instance a = new Instance("a:8090");
+        a.endpoint("GET", "/api/v2/users", "v2", 1);
+        a.reporter.syncNow();
+        aggregator.publishIfDirty();
+        Object document = aggregator.getDocument();
+
+        EndpointState noVersion = new EndpointState("GET", "/legacy/test", null, 1);
+        assertThrows(IllegalArgumentException.class, () -> aggregator.apply(new InventoryDelta("a:8090", 1, 2, 0,
+                Map.of(noVersion.key(), noVersion), null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> aggregator.apply(new InventoryDelta("a:8090", 1, 2, 0,
+                null, null, Map.of("v2", new VersionState(" ", 0)), null)));
+        assertThrows(IllegalArgumentException.class, () -> aggregator.apply(new InventoryDelta(" ", 0, 1, 0,
+                null, null, null, null)));
+
+        aggregator.publishIfDirty();
+        assertSame(document, aggregator.getDocument());
+        assertEquals(1, a.reporter.ackedRevision());
+        // La instancia sigue sincronizando y se puede retirar sin errores
+        a.endpoint("GET", "/api/v2/users", "v2", 2);
+        assertTrue(a.reporter.syncNow().applied());
+        clock.addAndGet(TIMEOUT.toMillis() + 1);
+        assertEquals(1, aggregator.evictStale());
+        assertEquals(0, fleet().instances());
+    }
+
+    @Test
+    public void testFleetSizeIsCapped() throws IOException {
+        for (int i = 0; i < MAX_INSTANCES; i++) {
+            Instance instance = new Instance("host-" + i + ":8090");
+            instance.endpoint("GET", "/api/v2/users", "v2", 1);
+            assertTrue(instance.reporter.syncNow().applied());
+        }
+        Instance extra = new Instance("extra:8090");
+        assertThrows(IllegalStateException.class, () -> extra.reporter.syncNow());
+
+        Instance big = new Instance("host-0:8090");
+        big.endpoint("GET", "/a", "v2", 0);
+        big.endpoint("GET", "/b", "v2", 0);
+        big.endpoint("GET", "/c", "v2", 0);
+        assertThrows(IllegalArgumentException.class, () -> big.reporter.syncNow());
+        assertEquals(MAX_INSTANCES, fleet().instances());
+    }
+
+    private FleetAggregator newAggregator() {
+        return new FleetAggregator(objectMapper, new SimpleMeterRegistry(), TIMEOUT, MAX_INSTANCES, MAX_ENDPOINTS,
+                clock::get);
+    }
+
+    private FleetInventory fleet() throws IOException {
+        aggregator.publishIfDirty();
+        return objectMapper.readValue(aggregator.getDocument().body(), FleetInventory.class);
+    }
+
+    private static FleetInventory.Endpoint endpoint(FleetInventory fleet, String path) {
+        return fleet.endpoints().stream()
+                .filter(endpoint -> endpoint.path().equals(path))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /** Instancia simulada: estado mutable y los deltas que envió al agregador actual. */
+    private final class Instance {
+
+        final Map<String, EndpointState> endpoints = new HashMap<>();
+        final Map<String, VersionState> versions = new HashMap<>();
+        final List<InventoryDelta> sent = new ArrayList<>();
+        final FleetReporter reporter;
+
+        Instance(String instanceId) {
+            reporter = new FleetReporter(() -> new InstanceSnapshot(endpoints, versions), delta -> {
+                sent.add(delta);
+                return aggregator.apply(delta);
+            }, instanceId, Duration.ofSeconds(10));
+        }
+
+        void endpoint(String method, String path, String version, long requests) {
+            EndpointState endpoint = new EndpointState(method, path, version, requests);
+            endpoints.put(endpoint.key(), endpoint);
+        }
+
+        void version(String version, String status, long gone) {
+            versions.put(version, new VersionState(status, gone));
+        }
+
+        InventoryDelta last() {
+            return sent.get(sent.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package pe.edu.vallegrande.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class EndpointDiscoveryTest {
+
+    @Autowired
+    private EndpointDiscovery endpointDiscovery;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private Optional<DiscoveredEndpoint> find(List<DiscoveredEndpoint> endpoints, String method, String path) {
+        return endpoints.stream()
+                .filter(e -> e.method().equals(method) && e.path().equals(path))
+                .findFirst();
+    }
+
+    @Test
+    public void testDiscoversEveryApplicationController() {
+        List<DiscoveredEndpoint> endpoints = endpointDiscovery.getSnapshot().endpoints();
+
+        DiscoveredEndpoint debug = find(endpoints, "GET", "/api/users/admin/debug").orElseThrow();
+        assertEquals("v1", debug.version());
+        assertEquals(DiscoveredEndpoint.Zone.VULNERABLE, debug.zone());
+        assertFalse(debug.documented());
+
+        DiscoveredEndpoint config = find(endpoints, "GET", "/legacy/internal/config").orElseThrow();
+        assertEquals("legacy", config.version());
+        assertEquals(DiscoveredEndpoint.Zone.VULNERABLE, config.zone());
+
+        DiscoveredEndpoint byId = find(endpoints, "GET", "/api/v2/users/{id}").orElseThrow();
+        assertEquals("v2", byId.version());
+        assertEquals(DiscoveredEndpoint.Zone.SECURE, byId.zone());
+        assertTrue(byId.documented());
+        assertEquals("UserControllerV2#getUserById", byId.handler());
+
+        assertTrue(endpoints.stream().noneMatch(e -> e.path().startsWith("/api-docs")),
+                "Framework endpoints must not be part of the inventory");
+    }
+
+    @Test
+    public void testInventoryIsBuiltFromSnapshot() {
+        assertEquals(endpointDiscovery.getSnapshot().endpoints(), inventoryService.getInventory().endpoints());
+
+        List<String> deprecated = inventoryService.getDeprecatedEndpoints().endpoints();
+        assertTrue(deprecated.stream().anyMatch(e -> e.startsWith("/api/users/admin/debug (v1)")));
+        assertTrue(deprecated.stream().anyMatch(e -> e.startsWith("/legacy/test (legacy)")));
+        assertTrue(deprecated.stream().noneMatch(e -> e.startsWith("/api/v2/")));
+        assertEquals("2024-06-01", inventoryService.getDeprecatedEndpoints().removalDate());
+    }
+
+    @Test
+    public void testVersionClassification() {
+        assertEquals("v2", EndpointDiscovery.versionOf("/api/v2/inventory", Object.class));
+        assertEquals("legacy", EndpointDiscovery.versionOf("/legacy/test", Object.class));
+        assertEquals("unversioned", EndpointDiscovery.versionOf("/status", Object.class));
+    }
+}
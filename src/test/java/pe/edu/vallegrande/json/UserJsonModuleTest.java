@@ -0,0 +1,60 @@
+package pe.edu.vallegrande.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class UserJsonModuleTest {
+
+    /** ObjectMapper de la aplicación, con el módulo registrado. */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Mismo builder que usa Spring Boot, pero sin el módulo: camino reflexivo de databind. */
+    private final ObjectMapper reflectiveMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private static List<User> sampleUsers() {
+        return List.of(
+                new User(1L, "admin", "admin@example.com", "admin123"),
+                new User(Long.MAX_VALUE, "José \"Pepe\" Ñandú", "tab\there@example.com", "línea\nnueva \u0001 😀"),
+                new User(null, null, null, null),
+                new User(0L, "", "", ""));
+    }
+
+    @Test
+    public void testModuleIsRegisteredInApplicationMapper() {
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(UserJsonModule.class.getSimpleName()));
+    }
+
+    @Test
+    public void testUserResponseDtoOutputIsByteIdentical() throws Exception {
+        List<UserResponseDto> dtos = new ArrayList<>();
+        for (User user : sampleUsers()) {
+            UserResponseDto dto = UserResponseDto.from(user);
+            dtos.add(dto);
+            assertArrayEquals(reflectiveMapper.writeValueAsBytes(dto), objectMapper.writeValueAsBytes(dto));
+        }
+        assertArrayEquals(reflectiveMapper.writeValueAsBytes(dtos), objectMapper.writeValueAsBytes(dtos));
+        assertEquals(reflectiveMapper.writerWithDefaultPrettyPrinter().writeValueAsString(dtos),
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(dtos));
+    }
+
+    @Test
+    public void testUserOutputIsByteIdentical() throws Exception {
+        for (User user : sampleUsers()) {
+            assertArrayEquals(reflectiveMapper.writeValueAsBytes(user), objectMapper.writeValueAsBytes(user));
+        }
+        assertArrayEquals(reflectiveMapper.writeValueAsBytes(sampleUsers()),
+                objectMapper.writeValueAsBytes(sampleUsers()));
+    }
+}
@@ -0,0 +1,42 @@
+package pe.edu.vallegrande.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteTableTest {
+
+    private final RouteTable<String> routes = RouteTable.<String>builder()
+            .add("/api/users", "list")
+            .add("/api/users/{id}", "byId")
+            .add("/api/users/admin/debug", "debug")
+            .add("/api/v2/users:batch", "batch")
+            .add("/legacy/internal/config", "config")
+            .build();
+
+    @Test
+    public void testLiteralAndVariableSegments() {
+        assertEquals("list", routes.match("/api/users"));
+        assertEquals("byId", routes.match("/api/users/42"));
+        assertEquals("debug", routes.match("/api/users/admin/debug"));
+        assertEquals("batch", routes.match("/api/v2/users:batch"));
+        assertEquals("config", routes.match("/legacy/internal/config"));
+    }
+
+    @Test
+    public void testLiteralPrefixFallsBackToVariable() {
+        // "admin" existe como literal, pero solo /api/users/{id} termina en este segmento
+        assertEquals("byId", routes.match("/api/users/admin"));
+    }
+
+    @Test
+    public void testUnknownPathsDoNotMatch() {
+        assertNull(routes.match("/api/v2/users"));
+        assertNull(routes.match("/api/users/"));
+        assertNull(routes.match("/api/users/1/orders"));
+        assertNull(routes.match("/api/user"));
+        assertNull(routes.match("/legacy"));
+        assertNull(routes.match("/"));
+        assertNull(routes.match(""));
+    }
+}
@@ -0,0 +1,74 @@
+package pe.edu.vallegrande.lifecycle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import pe.edu.vallegrande.metrics.TrafficRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class SunsetFilterTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    @Test
+    public void testSunsetVersionIsGoneWithLifecycleHeaders() {
+        ResponseEntity<String> response = restTemplate.getForEntity(createUrl("/api/users/1"), String.class);
+
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+        assertEquals("@1704067200", response.getHeaders().getFirst(SunsetFilter.DEPRECATION_HEADER));
+        assertEquals("Sat, 01 Jun 2024 00:00:00 GMT", response.getHeaders().getFirst(SunsetFilter.SUNSET_HEADER));
+        assertTrue(response.getHeaders().getFirst(SunsetFilter.LINK_HEADER).contains("</docs/migration-guide>"));
+        assertTrue(response.getBody().contains("\"version\":\"v1\""));
+        assertFalse(response.getBody().contains("password"), "The V1 controller must not run");
+
+        ResponseEntity<String> legacy = restTemplate.getForEntity(createUrl("/legacy/internal/config"), String.class);
+        assertEquals(HttpStatus.GONE, legacy.getStatusCode());
+        assertEquals("true", legacy.getHeaders().getFirst(SunsetFilter.DEPRECATION_HEADER));
+        assertFalse(legacy.getBody().contains("database=prod"));
+    }
+
+    @Test
+    public void testGoneRequestsNeverReachTheController() {
+        double before = goneCount("v1");
+
+        restTemplate.getForEntity(createUrl("/api/users"), String.class);
+        restTemplate.getForEntity(createUrl("/api/users/admin/debug"), String.class);
+
+        assertEquals(before + 2, goneCount("v1"));
+        // El registro de tráfico solo crea el Timer de un endpoint cuando su handler se ejecuta
+        assertNull(meterRegistry.find(TrafficRegistry.REQUESTS_METRIC).tag("endpoint", "GET /api/users").timer());
+    }
+
+    @Test
+    public void testCurrentVersionPassesThroughWithoutHeaders() {
+        ResponseEntity<String> response = restTemplate.getForEntity(createUrl("/api/v2/users/1"), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(SunsetFilter.DEPRECATION_HEADER));
+        assertNull(response.getHeaders().getFirst(SunsetFilter.SUNSET_HEADER));
+    }
+
+    private double goneCount(String version) {
+        Counter counter = meterRegistry.find(RouteStatus.GONE_METRIC).tag("version", version).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,162 @@
+package pe.edu.vallegrande.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import pe.edu.vallegrande.DemoApi9Application;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Suite de regresión de latencia y throughput. Arranca la aplicación, envía carga en lazo abierto al
+ * ritmo configurado a cada grupo de endpoints y compara el p99 y el throughput con las líneas base de
+ * {@code load/slo-baselines.properties}: si empeoran más que {@code loadtest.tolerance} (20 % por defecto)
+ * el test falla y con él el build. Solo se ejecuta a demanda:
+ * mvn -Ploadtest test
+ * Las distribuciones completas quedan en target/load-test/&lt;escenario&gt;.hgrm.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class LatencySloTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 20));
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2"));
+    private static final boolean RECORD = Boolean.getBoolean("loadtest.record");
+    private static final Path REPORT_DIRECTORY = Path.of("target", "load-test");
+
+    private static final Properties BASELINES = baselines();
+    private static final Properties MEASURED = new Properties();
+
+    private static ConfigurableApplicationContext context;
+    private static String base;
+
+    /**
+     * Grupo de endpoints que se ataca por turnos.
+     *
+     * @param accepted estados que cuentan como respuesta correcta
+     */
+    record Scenario(String name, List<String> paths, IntPredicate accepted) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static List<Scenario> scenarios() {
+        IntPredicate ok = status -> status == 200;
+        return List.of(
+                new Scenario("users", List.of(
+                        "/api/v2/users/1",
+                        "/api/v2/users?limit=20",
+                        "/api/v2/users/search?q=example&limit=20"), ok),
+                new Scenario("inventory", List.of(
+                        "/api/v2/inventory",
+                        "/api/v2/inventory/deprecated"), ok),
+                // Versiones retiradas: SunsetFilter responde 410 sin llegar al controlador
+                new Scenario("legacy-sunset", List.of(
+                        "/legacy/old-endpoint",
+                        "/legacy/test",
+                        "/api/users"), status -> status == 410));
+    }
+
+    @BeforeAll
+    static void startApplication() {
+        context = new SpringApplicationBuilder(DemoApi9Application.class)
+                .properties(
+                        "server.port=0",
+                        "logging.level.pe.edu.vallegrande=INFO",
+                        "logging.level.org.springframework.web=WARN")
+                .run();
+        base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @AfterAll
+    static void stopApplication() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (RECORD) {
+            Files.createDirectories(REPORT_DIRECTORY);
+            try (OutputStream out = Files.newOutputStream(REPORT_DIRECTORY.resolve("slo-baselines.properties"))) {
+                MEASURED.store(out, "Measured by LatencySloTest");
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("scenarios")
+    public void testLatencyAndThroughputMeetBaseline(Scenario scenario) throws IOException {
+        double rate = Double.parseDouble(System.getProperty("loadtest." + scenario.name() + ".rate",
+                baseline(scenario, "rate")));
+        double p99Baseline = Double.parseDouble(baseline(scenario, "p99-ms"));
+        double throughputBaseline = Double.parseDouble(baseline(scenario, "throughput"));
+
+        LoadGenerator generator = new LoadGenerator(
+                scenario.paths().stream().map(path -> URI.create(base + path)).toList(), scenario.accepted());
+        generator.openLoop(rate, WARMUP);
+        LoadGenerator.Result result = generator.openLoop(rate, DURATION);
+
+        System.out.printf(Locale.ROOT, "[%s] %.0f req/s offered: %s%n", scenario.name(), rate, result);
+        writeDistribution(scenario, result);
+        double p99 = result.percentileMillis(99);
+        // Locale.ROOT: con una configuración regional con coma decimal el baseline no se podría volver a leer
+        MEASURED.setProperty(scenario.name() + ".rate", String.valueOf((long) rate));
+        MEASURED.setProperty(scenario.name() + ".p99-ms", String.format(Locale.ROOT, "%.2f", p99));
+        MEASURED.setProperty(scenario.name() + ".throughput", String.format(Locale.ROOT, "%.0f", result.throughput()));
+
+        assertEquals(0, result.errors(), scenario.name() + ": unexpected responses or failures");
+        assertTrue(p99 <= p99Baseline * (1 + TOLERANCE), String.format(Locale.ROOT,
+                "%s: p99 %.2f ms regressed past baseline %.2f ms (+%.0f%%)",
+                scenario.name(), p99, p99Baseline, TOLERANCE * 100));
+        assertTrue(result.throughput() >= throughputBaseline * (1 - TOLERANCE), String.format(Locale.ROOT,
+                "%s: throughput %.0f req/s regressed past baseline %.0f req/s (-%.0f%%)",
+                scenario.name(), result.throughput(), throughputBaseline, TOLERANCE * 100));
+    }
+
+    private static String baseline(Scenario scenario, String key) {
+        String value = BASELINES.getProperty(scenario.name() + "." + key);
+        assertNotNull(value, "Missing baseline " + scenario.name() + "." + key);
+        return value;
+    }
+
+    private static void writeDistribution(Scenario scenario, LoadGenerator.Result result) throws IOException {
+        Files.createDirectories(REPORT_DIRECTORY);
+        try (PrintStream out = new PrintStream(
+                Files.newOutputStream(REPORT_DIRECTORY.resolve(scenario.name() + ".hgrm")))) {
+            // Microsegundos registrados, distribución en milisegundos
+            result.latencies().outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static Properties baselines() {
+        Properties properties = new Properties();
+        try (InputStream in = LatencySloTest.class.getResourceAsStream("/load/slo-baselines.properties")) {
+            if (in == null) {
+                throw new IllegalStateException("load/slo-baselines.properties not found on the test classpath");
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read load test baselines", e);
+        }
+        return properties;
+    }
+}
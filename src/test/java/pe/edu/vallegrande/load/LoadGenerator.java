@@ -0,0 +1,158 @@
+package pe.edu.vallegrande.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntPredicate;
+
+/**
+ * Generador de carga sobre HttpClient asíncrono: no necesita un hilo por conexión en el cliente y,
+ * en Java 21+, sus tareas se ejecutan en hilos virtuales.
+ * <ul>
+ *   <li>Lazo cerrado ({@link #closedLoop}): mantiene {@code connections} peticiones en vuelo, cada una
+ *       encadena la siguiente al completarse, hasta agotar la duración. Mide el throughput máximo.</li>
+ *   <li>Lazo abierto ({@link #openLoop}): envía a ritmo fijo sin esperar respuestas. La latencia se mide
+ *       desde el instante en que debía salir cada petición, así que un servidor que se retrasa no
+ *       esconde su cola (coordinated omission).</li>
+ * </ul>
+ * Las latencias se registran en un HdrHistogram en microsegundos.
+ */
+final class LoadGenerator {
+
+    private final HttpClient client;
+    private final List<URI> targets;
+    private final IntPredicate accepted;
+
+    LoadGenerator(List<URI> targets) {
+        this(targets, status -> status < 400);
+    }
+
+    /**
+     * @param accepted estados HTTP que cuentan como respuesta correcta (p. ej. 410 en rutas retiradas)
+     */
+    LoadGenerator(List<URI> targets, IntPredicate accepted) {
+        this.targets = List.copyOf(targets);
+        this.accepted = accepted;
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10));
+        Executor executor = virtualThreadExecutor();
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        this.client = builder.build();
+    }
+
+    Result closedLoop(int connections, Duration duration) {
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        CompletableFuture<?>[] loops = new CompletableFuture<?>[connections];
+        for (int i = 0; i < connections; i++) {
+            loops[i] = loop(i, deadline, latencies, completed, errors);
+        }
+        CompletableFuture.allOf(loops).join();
+        long elapsedNanos = System.nanoTime() - start;
+        return new Result(completed.sum(), errors.sum(), elapsedNanos, latencies);
+    }
+
+    /**
+     * Envía {@code ratePerSecond} peticiones por segundo durante {@code duration}, repartidas por turnos
+     * entre los destinos, y espera a que terminen las que quedan en vuelo.
+     */
+    Result openLoop(double ratePerSecond, Duration duration) {
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        for (long sent = 0; ; sent++) {
+            long intended = start + sent * intervalNanos;
+            if (intended >= deadline) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            URI target = targets.get((int) (sent % targets.size()));
+            inFlight.add(send(target, intended, latencies, completed, errors));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        long elapsedNanos = System.nanoTime() - start;
+        return new Result(completed.sum(), errors.sum(), elapsedNanos, latencies);
+    }
+
+    private CompletableFuture<Void> loop(int sequence, long deadline, Histogram latencies,
+                                         LongAdder completed, LongAdder errors) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        URI target = targets.get(sequence % targets.size());
+        return send(target, System.nanoTime(), latencies, completed, errors)
+                .thenCompose(ignored -> loop(sequence + 1, deadline, latencies, completed, errors));
+    }
+
+    private CompletableFuture<Void> send(URI target, long startNanos, Histogram latencies,
+                                         LongAdder completed, LongAdder errors) {
+        HttpRequest request = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30)).GET().build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+                    if (failure == null && accepted.test(response.statusCode())) {
+                        completed.increment();
+                    } else {
+                        errors.increment();
+                    }
+                    return null;
+                });
+    }
+
+    /** Un hilo virtual por tarea en Java 21+; {@code null} (executor por defecto del cliente) en Java 17. */
+    private static Executor virtualThreadExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param latencies latencias en microsegundos
+     */
+    record Result(long requests, long errors, long elapsedNanos, Histogram latencies) {
+
+        double throughput() {
+            return requests / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d requests, %d errors, %.0f req/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                    requests, errors, throughput(), percentileMillis(50), percentileMillis(99),
+                    latencies.getMaxValue() / 1000.0);
+        }
+    }
+}
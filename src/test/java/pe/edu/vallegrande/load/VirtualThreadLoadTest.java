@@ -0,0 +1,68 @@
+package pe.edu.vallegrande.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import pe.edu.vallegrande.DemoApi9Application;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compara el throughput del pipeline de Tomcat con hilos de plataforma y con hilos virtuales
+ * bajo 10k conexiones concurrentes. Solo se ejecuta a demanda:
+ * mvn -Pjava21 test -Dtest=VirtualThreadLoadTest -Dloadtest=true
+ * (requiere Java 21 para la variante virtual y un límite de descriptores, ulimit -n, superior a 2x conexiones).
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class VirtualThreadLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+
+    private static final int CONNECTIONS = Integer.getInteger("loadtest.connections", 10_000);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 15));
+
+    @Test
+    public void testThroughputWithVirtualAndPlatformThreads() {
+        LoadGenerator.Result platform = run(false);
+        log.info("Platform threads: {}", platform);
+        assertEquals(0, platform.errors(), "Platform thread pool dropped requests");
+
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads require Java 21");
+        LoadGenerator.Result virtual = run(true);
+        log.info("Virtual threads:  {}", virtual);
+        log.info("Virtual/platform throughput ratio: {}",
+                String.format(Locale.ROOT, "%.2f", virtual.throughput() / platform.throughput()));
+        assertEquals(0, virtual.errors(), "Virtual thread executor dropped requests");
+    }
+
+    private LoadGenerator.Result run(boolean virtualThreads) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApi9Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.max-connections=" + (CONNECTIONS + 1000),
+                        "server.tomcat.accept-count=" + CONNECTIONS,
+                        "logging.level.pe.edu.vallegrande=INFO")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+            LoadGenerator generator = new LoadGenerator(List.of(
+                    URI.create(base + "/api/v2/users/1"),
+                    URI.create(base + "/api/v2/users?limit=10"),
+                    URI.create(base + "/api/v2/inventory")));
+            // Calentamiento corto con poca concurrencia antes de medir
+            generator.closedLoop(Math.min(CONNECTIONS, 100), Duration.ofSeconds(2));
+            return generator.closedLoop(CONNECTIONS, DURATION);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package pe.edu.vallegrande.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.method.HandlerMethod;
+import pe.edu.vallegrande.controller.secure.UserControllerV2;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.sunset.enforce=false")
+public class EndpointTrafficTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TrafficRegistry trafficRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserControllerV2 userControllerV2;
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    @Test
+    public void testDeprecatedTrafficIsReportedPerVersion() {
+        long before = calls("legacy");
+        restTemplate.getForEntity(createUrl("/legacy/test"), String.class);
+        restTemplate.getForEntity(createUrl("/legacy/test"), String.class);
+        restTemplate.getForEntity(createUrl("/api/users/1"), String.class);
+
+        Map<String, VersionTraffic> report = trafficRegistry.report();
+        VersionTraffic legacy = report.get("legacy");
+        assertEquals(before + 2, legacy.calls());
+        assertNotNull(legacy.lastSeen());
+        assertEquals(1, legacy.distinctClients());
+        assertTrue(legacy.endpoints().stream().anyMatch(e -> e.path().equals("/legacy/test")));
+        assertTrue(report.get("v1").endpoints().stream().anyMatch(e -> e.path().equals("/api/users/{id}")));
+
+        Timer timer = meterRegistry.find(TrafficRegistry.REQUESTS_METRIC)
+                .tag("version", "legacy")
+                .tag("endpoint", "GET /legacy/test")
+                .timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() >= 2);
+    }
+
+    @Test
+    public void testTrafficEndpointIsExposed() {
+        restTemplate.getForEntity(createUrl("/api/v2/users"), String.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                createUrl("/api/v2/inventory/traffic"), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"v2\""));
+        assertTrue(response.getBody().contains("callsPerMinute"));
+        assertTrue(response.getBody().contains("lastSeen"));
+    }
+
+    @Test
+    public void testEachPatternOfAHandlerIsCountedSeparately() {
+        Method method = Arrays.stream(UserControllerV2.class.getMethods())
+                .filter(m -> m.getName().equals("getUserById"))
+                .findFirst()
+                .orElseThrow();
+        HandlerMethod handler = new HandlerMethod(userControllerV2, method);
+
+        // Un handler mapeado con dos patrones (p. ej. un alias) no comparte contadores entre ellos
+        EndpointTraffic byId = trafficRegistry.forHandler(handler, "GET", "/api/v2/users/{id}");
+        EndpointTraffic alias = trafficRegistry.forHandler(handler, "GET", "/api/v2/users/by-id/{id}");
+
+        assertNotSame(byId, alias);
+        assertEquals("/api/v2/users/{id}", byId.path());
+        assertEquals("/api/v2/users/by-id/{id}", alias.path());
+        assertSame(byId, trafficRegistry.forHandler(handler, "GET", "/api/v2/users/{id}"));
+    }
+
+    @Test
+    public void testDistinctCounterEstimate() {
+        DistinctCounter counter = new DistinctCounter();
+        for (int i = 0; i < 50_000; i++) {
+            counter.offer("10.0." + (i / 256) + "." + (i % 256));
+            counter.offer("10.0." + (i / 256) + "." + (i % 256));
+        }
+        long estimate = counter.estimate();
+        assertTrue(Math.abs(estimate - 50_000) < 50_000 * 0.1, "Estimate " + estimate + " too far from 50000");
+    }
+
+    private long calls(String version) {
+        VersionTraffic traffic = trafficRegistry.report().get(version);
+        return traffic == null ? 0 : traffic.calls();
+    }
+}
@@ -0,0 +1,73 @@
+package pe.edu.vallegrande.openapi;
+
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.service.OpenAPIService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import pe.edu.vallegrande.inventory.EndpointDiscovery;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class PrebuiltOpenApiTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private EndpointDiscovery endpointDiscovery;
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    @Test
+    public void testApiDocsAreServedFromBuildArtifact() throws Exception {
+        byte[] artifact = StreamUtils.copyToByteArray(
+                new ClassPathResource(PrebuiltOpenApiConfig.RESOURCE_LOCATION + PrebuiltOpenApiConfig.JSON_FILE)
+                        .getInputStream());
+
+        ResponseEntity<byte[]> response = restTemplate.getForEntity(createUrl("/api-docs"), byte[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(artifact, response.getBody());
+        assertNotNull(response.getHeaders().getETag());
+        assertEquals(0, context.getBeanNamesForType(OpenAPIService.class).length,
+                "Runtime scanning must be off outside the dev profile");
+    }
+
+    @Test
+    public void testApiDocsSupportConditionalRequests() {
+        String etag = restTemplate.getForEntity(createUrl("/api-docs.yaml"), String.class).getHeaders().getETag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> response = restTemplate.exchange(
+                createUrl("/api-docs.yaml"), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+    }
+
+    @Test
+    public void testApiDocsRouteIsNotPartOfInventory() {
+        assertTrue(endpointDiscovery.getSnapshot().endpoints().stream()
+                .noneMatch(endpoint -> endpoint.path().startsWith("/api-docs")));
+    }
+}
@@ -0,0 +1,71 @@
+package pe.edu.vallegrande.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.sunset.enforce=false",
+        "app.ratelimit.sunset.rate=0.01",
+        "app.ratelimit.sunset.burst=2"
+})
+public class RateLimitInterceptorTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String createUrl(String endpoint) {
+        return "http://localhost:" + port + endpoint;
+    }
+
+    private void awaitNoneInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        // afterCompletion puede ejecutarse después de que el cliente reciba la respuesta
+        while (rateLimiter.inFlight() != 0) {
+            assertTrue(System.nanoTime() < deadline, "Admitted requests must be released");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testSunsetEndpointIsRateLimited() throws InterruptedException {
+        // Las rutas legacy superaron su fecha de retirada (2024-06-01)
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(createUrl("/legacy/test"), String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(createUrl("/legacy/test"), String.class).getStatusCode());
+
+        ResponseEntity<String> limited = restTemplate.getForEntity(createUrl("/legacy/test"), String.class);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getStatusCode());
+        assertTrue(Long.parseLong(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)) > 0);
+        assertTrue(meterRegistry.counter(RateLimiter.REJECTED_METRIC,
+                "status", "SUNSET", "reason", "RATE_LIMITED").count() >= 1);
+
+        awaitNoneInFlight();
+    }
+
+    @Test
+    public void testCurrentVersionIsNotLimited() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK,
+                    restTemplate.getForEntity(createUrl("/api/v2/users/1"), String.class).getStatusCode());
+        }
+    }
+}
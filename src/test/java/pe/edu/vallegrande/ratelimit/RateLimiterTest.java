@@ -0,0 +1,142 @@
+package pe.edu.vallegrande.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import pe.edu.vallegrande.inventory.InventoryService;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBucketAdmitsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(new LimitPolicy(2, 3, 10), 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        long wait = bucket.tryAcquire(0);
+        assertEquals(SECOND / 2, wait, "One token every 500 ms at 2 permits/s");
+
+        assertEquals(0, bucket.tryAcquire(wait));
+        assertTrue(bucket.tryAcquire(wait) > 0);
+    }
+
+    @Test
+    public void testConcurrentAcquiresNeverExceedBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(new LimitPolicy(1, 50, 10), 0);
+        AtomicInteger admitted = new AtomicInteger();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    if (bucket.tryAcquire(0) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(50, admitted.get());
+    }
+
+    @Test
+    public void testCurrentVersionsAreNotLimited() {
+        RateLimiter limiter = limiter(new AtomicLong());
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(limiter.admit(InventoryService.STATUS_CURRENT, "10.0.0.1", "GET /api/v2/users").admitted());
+        }
+        assertEquals(0, limiter.bucketCount());
+    }
+
+    @Test
+    public void testSunsetVersionsGetRetryAfter() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock);
+
+        assertTrue(limiter.admit(InventoryService.STATUS_SUNSET, "10.0.0.1", "GET /legacy/test").admitted());
+        assertTrue(limiter.admit(InventoryService.STATUS_SUNSET, "10.0.0.1", "GET /legacy/test").admitted());
+        RateLimiter.Admission rejected = limiter.admit(InventoryService.STATUS_SUNSET, "10.0.0.1", "GET /legacy/test");
+        assertEquals(RateLimiter.Outcome.RATE_LIMITED, rejected.outcome());
+        assertEquals(2, rejected.retryAfterSeconds(), "0.5 permits/s: next token in two seconds");
+
+        // Cada cliente y endpoint tiene su propio cubo
+        assertTrue(limiter.admit(InventoryService.STATUS_SUNSET, "10.0.0.2", "GET /legacy/test").admitted());
+        assertTrue(limiter.admit(InventoryService.STATUS_SUNSET, "10.0.0.1", "GET /legacy/old-endpoint").admitted());
+
+        for (int i = 0; i < 4; i++) {
+            limiter.release();
+        }
+        clock.addAndGet(2 * SECOND);
+        assertTrue(limiter.admit(InventoryService.STATUS_SUNSET, "10.0.0.1", "GET /legacy/test").admitted());
+    }
+
+    @Test
+    public void testLegacyTrafficIsShedFirstUnderLoad() {
+        RateLimiter limiter = limiter(new AtomicLong());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.admit(InventoryService.STATUS_CURRENT, "10.0.0.1", "GET /api/v2/users").admitted());
+        }
+        assertEquals(4, limiter.inFlight());
+
+        // Con 4 en curso se descarta lo retirado; lo obsoleto aún entra hasta 8
+        assertEquals(RateLimiter.Outcome.SHED,
+                limiter.admit(InventoryService.STATUS_SUNSET, "10.0.0.1", "GET /legacy/test").outcome());
+        assertTrue(limiter.admit(InventoryService.STATUS_DEPRECATED, "10.0.0.1", "GET /api/users").admitted());
+        assertTrue(limiter.admit(InventoryService.STATUS_CURRENT, "10.0.0.1", "GET /api/v2/users").admitted());
+
+        limiter.release();
+        limiter.release();
+        limiter.release();
+        assertEquals(3, limiter.inFlight());
+        assertTrue(limiter.admit(InventoryService.STATUS_SUNSET, "10.0.0.1", "GET /legacy/test").admitted());
+    }
+
+    @Test
+    public void testIdleBucketsExpireOnceRefilled() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock);
+        for (int client = 0; client < 100; client++) {
+            assertTrue(limiter.admit(InventoryService.STATUS_SUNSET, "10.0.1." + client, "GET /legacy/test").admitted());
+            limiter.release();
+        }
+        assertEquals(100, limiter.bucketCount());
+
+        // La ráfaga más lenta (2 tokens a 0.5/s) se rellena en 4 s; cada acceso reinicia ese plazo
+        clock.addAndGet(3 * SECOND);
+        assertEquals(100, limiter.bucketCount());
+        assertTrue(limiter.admit(InventoryService.STATUS_SUNSET, "10.0.1.0", "GET /legacy/test").admitted());
+        limiter.release();
+        clock.addAndGet(SECOND + 1);
+        assertEquals(1, limiter.bucketCount());
+        clock.addAndGet(3 * SECOND);
+        assertEquals(0, limiter.bucketCount());
+    }
+
+    private static RateLimiter limiter(AtomicLong clock) {
+        return new RateLimiter(
+                RateLimiter.policies(new LimitPolicy(10, 10, 8), new LimitPolicy(0.5, 2, 4)),
+                1, clock::get, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,327 @@
+package pe.edu.vallegrande.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pe.edu.vallegrande.model.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileUserJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "columnar"})
+    public void testUsersSurviveRestart(String storage) {
+        FileUserJournal journal = journal();
+        UserRepository repository = new UserRepository(UserStorage.create(storage), journal);
+        repository.save(new User(null, "José", "jose@example.com", "$2a$10$hash"));
+        repository.save(new User(1L, "root", null, "secret"));
+        assertTrue(repository.writesBlock());
+        journal.close();
+
+        UserRepository recovered = new UserRepository(UserStorage.create(storage), journal());
+
+        assertEquals(3, recovered.count());
+        assertEquals("root", recovered.findById(1).orElseThrow().getUsername());
+        assertNull(recovered.findById(1).orElseThrow().getEmail());
+        assertTrue(recovered.findByUsername("admin").isEmpty());
+        assertEquals(3L, recovered.findByEmail("jose@example.com").orElseThrow().getId());
+        assertEquals(4L, recovered.save(new User(null, "next", "next@example.com", "p")).getId());
+    }
+
+    @Test
+    public void testCrashRecoveryReplaysWalAfterSnapshot() throws IOException {
+        FileUserJournal journal = journal();
+        UserRepository repository = new UserRepository(UserStorage.create("heap"), journal);
+        for (int i = 0; i < 1_000; i++) {
+            repository.save(new User(null, "before-" + i, null, "p"));
+        }
+        journal.checkpoint();
+        repository.saveAll(List.of(new User(null, "after-1", null, "p"), new User(null, "after-2", null, "p")));
+        repository.save(new User(5L, "updated", null, "p"));
+        assertEquals(1, files(FileUserJournal.SNAPSHOT_SUFFIX));
+        assertEquals(1, files(FileUserJournal.WAL_SUFFIX), "Checkpoint drops the segments it covers");
+
+        // Sin close(): simula una caída tras confirmar las escrituras
+        UserRepository recovered = new UserRepository(UserStorage.create("heap"), journal());
+
+        assertEquals(1_004, recovered.count());
+        assertEquals("after-2", recovered.findById(1_004).orElseThrow().getUsername());
+        assertEquals("updated", recovered.findById(5).orElseThrow().getUsername());
+        assertTrue(recovered.findByUsername("before-2").isEmpty());
+    }
+
+    @Test
+    public void testTornRecordAtEndOfWalIsDiscarded() throws IOException {
+        FileUserJournal journal = journal();
+        UserRepository repository = new UserRepository(UserStorage.create("heap"), journal);
+        repository.save(new User(null, "durable", null, "p"));
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(p -> p.toString().endsWith(FileUserJournal.WAL_SUFFIX)).findFirst().orElseThrow();
+        }
+        long validSize = Files.size(segment);
+        byte[] torn = UserRecordFile.encode(new User(4L, "torn", null, "p"));
+        Files.write(segment, Arrays.copyOf(torn, torn.length - 3), StandardOpenOption.APPEND);
+
+        UserRepository recovered = new UserRepository(UserStorage.create("heap"), journal());
+
+        assertEquals(3, recovered.count());
+        assertEquals("durable", recovered.findById(3).orElseThrow().getUsername());
+        assertTrue(recovered.findById(4).isEmpty());
+        assertEquals(validSize, Files.size(segment), "The torn tail is truncated");
+    }
+
+    @Test
+    public void testRecordTooLargeForTheWalLeavesMemoryUntouched() throws IOException {
+        FileUserJournal journal = journal();
+        UserRepository repository = new UserRepository(UserStorage.create("heap"), journal);
+        String huge = "x".repeat(UserRecordFile.MAX_PAYLOAD);
+
+        assertThrows(IllegalArgumentException.class, () -> repository.save(new User(null, huge, null, "p")));
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(
+                List.of(new User(null, "fits", null, "p"), new User(null, "too-big", huge, "p"))));
+
+        assertEquals(2, repository.count());
+        assertTrue(repository.findByUsername("fits").isEmpty());
+        assertFalse(repository.hasIdsAfter(2));
+        journal.checkpoint();
+        assertEquals(2, new UserRepository(UserStorage.create("heap"), journal()).count());
+    }
+
+    @Test
+    public void testConcurrentWritersShareFsyncs() throws InterruptedException {
+        FileUserJournal journal = journal();
+        UserRepository repository = new UserRepository(UserStorage.create("heap"), journal);
+        long syncsBefore = journal.syncCount();
+        int threads = 8;
+        int perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        repository.save(new User(null, "user-" + thread + "-" + i, null, "p"));
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        assertTrue(failures.isEmpty(), () -> failures.toString());
+
+        long syncs = journal.syncCount() - syncsBefore;
+        assertTrue(syncs <= threads * perThread, "At most one fsync per write");
+
+        UserRepository recovered = new UserRepository(UserStorage.create("heap"), journal());
+        assertEquals(2 + threads * perThread, recovered.count());
+        assertTrue(recovered.findByUsername("user-7-199").isPresent());
+    }
+
+    @Test
+    public void testFailedFsyncFailsTheJournal() {
+        AtomicBoolean failWrites = new AtomicBoolean();
+        AtomicBoolean failForce = new AtomicBoolean();
+        FileUserJournal journal = new FileUserJournal(directory, Duration.ZERO,
+                file -> new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND), failWrites, failForce));
+        UserRepository repository = new UserRepository(UserStorage.create("heap"), journal);
+        repository.save(new User(null, "durable", null, "p"));
+        long syncs = journal.syncCount();
+
+        failForce.set(true);
+        assertThrows(UncheckedIOException.class, () -> repository.save(new User(null, "lost", null, "p")));
+        assertTrue(journal.failed());
+
+        // Aunque el disco se recupere, nada posterior se confirma como durable
+        failForce.set(false);
+        for (int i = 0; i < 2_000; i++) {
+            journal.append(new User((long) i + 100, "after-" + i, null, "p"));
+        }
+        assertThrows(UncheckedIOException.class, () -> repository.save(new User(null, "after", null, "p")));
+        assertThrows(UncheckedIOException.class, () -> journal.awaitDurable(1));
+        assertEquals(syncs, journal.syncCount());
+        journal.close();
+
+        UserRepository recovered = new UserRepository(UserStorage.create("heap"), journal());
+        assertTrue(recovered.findByUsername("durable").isPresent());
+    }
+
+    @Test
+    public void testFailedWriteKeepsUnwrittenRecordsPending() {
+        AtomicBoolean failWrites = new AtomicBoolean();
+        AtomicBoolean failForce = new AtomicBoolean();
+        FileUserJournal journal = new FileUserJournal(directory, Duration.ZERO,
+                file -> new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND), failWrites, failForce));
+        UserRepository repository = new UserRepository(UserStorage.create("heap"), journal);
+        long syncs = journal.syncCount();
+
+        failWrites.set(true);
+        assertThrows(UncheckedIOException.class, () -> repository.save(new User(null, "unwritten", null, "p")));
+
+        // Los buffers siguen siendo distintos: seguir añadiendo no corrompe ni desborda el pendiente
+        long previous = 0;
+        for (int i = 0; i < 5_000; i++) {
+            long sequence = journal.append(new User((long) i + 100, "user-" + i, "user-" + i + "@example.com", "p"));
+            assertTrue(sequence > previous);
+            previous = sequence;
+        }
+        long last = previous;
+        failWrites.set(false);
+        assertThrows(UncheckedIOException.class, () -> journal.awaitDurable(last));
+        assertEquals(syncs, journal.syncCount());
+    }
+
+    private FileUserJournal journal() {
+        return new FileUserJournal(directory, Duration.ZERO);
+    }
+
+    private long files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.toString().endsWith(suffix)).count();
+        }
+    }
+
+    /** Canal que falla en {@code write} o {@code force} a demanda y delega todo lo demás. */
+    private static final class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private final AtomicBoolean failWrites;
+        private final AtomicBoolean failForce;
+
+        FailingChannel(FileChannel delegate, AtomicBoolean failWrites, AtomicBoolean failForce) {
+            this.delegate = delegate;
+            this.failWrites = failWrites;
+            this.failForce = failForce;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failWrites.get()) {
+                throw new IOException("Simulated write failure");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce.get()) {
+                throw new IOException("Simulated fsync failure");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package pe.edu.vallegrande.repository;
+
+import org.junit.jupiter.api.Test;
+import pe.edu.vallegrande.model.User;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReactiveUserRepositoryTest {
+
+    /** Cuenta los tramos leídos para comprobar que la lectura sigue a la demanda. */
+    private static final class CountingRepository extends UserRepository {
+
+        final AtomicInteger scans = new AtomicInteger();
+
+        @Override
+        public long scan(long afterId, int limit, Consumer<? super User> action) {
+            scans.incrementAndGet();
+            return super.scan(afterId, limit, action);
+        }
+    }
+
+    private static CountingRepository repositoryWith(int users) {
+        CountingRepository repository = new CountingRepository();
+        for (int i = 0; i < users; i++) {
+            repository.save(new User(null, "reactive-" + i, "reactive-" + i + "@example.com", "pwd"));
+        }
+        return repository;
+    }
+
+    @Test
+    public void testScanReadsOnlyWhatIsRequested() {
+        CountingRepository repository = repositoryWith(ReactiveUserRepository.CHUNK * 4);
+        ReactiveUserRepository reactive = new ReactiveUserRepository(repository, Schedulers.immediate());
+        repository.scans.set(0);
+
+        StepVerifier.create(reactive.scan(0, Long.MAX_VALUE), 0)
+                .expectSubscription()
+                .then(() -> assertEquals(0, repository.scans.get(), "Nothing is read before demand"))
+                .thenRequest(10)
+                .expectNextCount(10)
+                .then(() -> assertEquals(1, repository.scans.get()))
+                .thenRequest(ReactiveUserRepository.CHUNK)
+                .expectNextCount(ReactiveUserRepository.CHUNK)
+                .then(() -> assertEquals(2, repository.scans.get()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    public void testScanHonorsCursorAndLimit() {
+        CountingRepository repository = repositoryWith(600);
+        ReactiveUserRepository reactive = new ReactiveUserRepository(repository, Schedulers.immediate());
+        long first = repository.scan(0, 1, user -> { });
+
+        StepVerifier.create(reactive.scan(first + 99, 300).map(User::getId))
+                .expectNext(first + 100)
+                .expectNextCount(298)
+                .expectNext(first + 399)
+                .verifyComplete();
+
+        long total = repository.count();
+        StepVerifier.create(reactive.scan(0, Long.MAX_VALUE))
+                .expectNextCount(total)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testSearchStreamsMatchesInIdOrder() {
+        CountingRepository repository = repositoryWith(ReactiveUserRepository.CHUNK + 50);
+        ReactiveUserRepository reactive = new ReactiveUserRepository(repository, Schedulers.immediate());
+
+        StepVerifier.create(reactive.search("reactive-1", true, 0, Long.MAX_VALUE)
+                        .map(User::getUsername)
+                        .filter(username -> !username.startsWith("reactive-1")))
+                .verifyComplete();
+        // reactive-1, reactive-10..19 y reactive-100..199 (hay 306 usuarios)
+        StepVerifier.create(reactive.search("reactive-1", true, 0, Long.MAX_VALUE))
+                .expectNextCount(111)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testFindByIdAndSave() {
+        CountingRepository repository = repositoryWith(1);
+        ReactiveUserRepository reactive = new ReactiveUserRepository(repository, Schedulers.immediate());
+
+        User saved = reactive.save(new User(null, "reactive-new", "reactive-new@example.com", "pwd")).block();
+        assertNotNull(saved);
+        assertNotNull(saved.getId());
+
+        StepVerifier.create(reactive.findById(saved.getId()).map(User::getUsername))
+                .expectNext("reactive-new")
+                .verifyComplete();
+        StepVerifier.create(reactive.findById(Long.MAX_VALUE))
+                .verifyComplete();
+    }
+}
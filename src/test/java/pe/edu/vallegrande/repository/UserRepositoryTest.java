@@ -0,0 +1,202 @@
+package pe.edu.vallegrande.repository;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pe.edu.vallegrande.model.User;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserRepositoryTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "columnar", "columnar-offheap"})
+    public void testSeedDataIsIndexed(String storage) {
+        UserRepository repository = new UserRepository(UserStorage.create(storage));
+
+        assertEquals(2, repository.count());
+        assertEquals("admin", repository.findById(1).orElseThrow().getUsername());
+        assertEquals(2L, repository.findByUsername("user1").orElseThrow().getId());
+        assertEquals(1L, repository.findByEmail("admin@example.com").orElseThrow().getId());
+        assertTrue(repository.findById(99).isEmpty());
+        assertTrue(repository.findByUsername("nobody").isEmpty());
+        assertFalse(repository.writesBlock(), "Without a journal save never waits for the disk");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "columnar", "columnar-offheap"})
+    public void testSaveReplacesSecondaryIndexEntries(String storage) {
+        UserRepository repository = new UserRepository(UserStorage.create(storage));
+
+        repository.save(new User(1L, "root", "root@example.com", "secret"));
+
+        assertEquals(2, repository.count());
+        assertTrue(repository.findByUsername("admin").isEmpty());
+        assertTrue(repository.findByEmail("admin@example.com").isEmpty());
+        assertEquals(1L, repository.findByUsername("root").orElseThrow().getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "columnar", "columnar-offheap"})
+    public void testConcurrentSavesGetUniqueIds(String storage) throws InterruptedException {
+        UserRepository repository = new UserRepository(UserStorage.create(storage));
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    String name = "user-" + thread + "-" + i;
+                    repository.save(new User(null, name, name + "@example.com", "pwd"));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        long expected = 2L + threads * perThread;
+        assertEquals(expected, repository.count());
+
+        List<User> all = repository.findAll();
+        assertEquals(expected, all.size());
+        Set<Long> ids = new HashSet<>();
+        long previous = 0;
+        for (User user : all) {
+            assertTrue(user.getId() > previous, "forEach must iterate in ascending id order");
+            previous = user.getId();
+            ids.add(user.getId());
+        }
+        assertEquals(expected, ids.size());
+        assertEquals("user-3-42", repository.findByUsername("user-3-42")
+                .flatMap(u -> repository.findById(u.getId()))
+                .orElseThrow().getUsername());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"columnar", "columnar-offheap"})
+    public void testColumnarStorageRoundTripsFields(String storage) {
+        UserRepository repository = new UserRepository(UserStorage.create(storage));
+
+        User saved = repository.save(new User(null, "José Ñandú 用户", null, "pässwörd"));
+        User loaded = repository.findById(saved.getId()).orElseThrow();
+
+        assertNotSame(saved, loaded, "Columnar storage materializes a new object on read");
+        assertEquals("José Ñandú 用户", loaded.getUsername());
+        assertNull(loaded.getEmail());
+        assertEquals("pässwörd", loaded.getPassword());
+        assertEquals(saved.getId(), repository.findByUsername("José Ñandú 用户").orElseThrow().getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "columnar"})
+    public void testSaveAllAssignsContiguousIds(String storage) {
+        UserRepository repository = new UserRepository(UserStorage.create(storage));
+
+        List<User> batch = List.of(
+                new User(null, "b1", "b1@example.com", "p"),
+                new User(null, "b2", "b2@example.com", "p"),
+                new User(null, "b3", "b3@example.com", "p"));
+        repository.saveAll(batch);
+
+        assertEquals(3L, batch.get(0).getId());
+        assertEquals(5L, batch.get(2).getId());
+        assertEquals("b2", repository.findById(4).orElseThrow().getUsername());
+        assertEquals(5, repository.count());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "columnar"})
+    public void testIdOutOfRangeIsRejected(String storage) {
+        UserRepository repository = new UserRepository(UserStorage.create(storage));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.save(new User(UserRepository.MAX_ID + 1, "x", "x@example.com", "p")));
+        assertTrue(repository.findById(3).isEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "columnar", "columnar-offheap"})
+    public void testSearchMatchesPrefixAndSubstringInIdOrder(String storage) {
+        UserRepository repository = new UserRepository(UserStorage.create(storage));
+        repository.save(new User(null, "MariaLopez", "maria@uni.edu.pe", "p"));
+        repository.save(new User(null, "jose", "jose.maria@example.com", "p"));
+        repository.save(new User(null, "rosa", null, "p"));
+
+        assertEquals(List.of("MariaLopez", "jose"), search(repository, "MARIA", false, 0, 10));
+        assertEquals(List.of("MariaLopez"), search(repository, "mari", true, 0, 10));
+        assertEquals(List.of("admin", "user1", "jose"), search(repository, "example.com", false, 0, 10));
+        assertEquals(List.of("jose"), search(repository, "example.com", false, 2, 10), "Cursor skips ids <= after");
+        assertEquals(List.of("admin"), search(repository, "example.com", false, 0, 1));
+        assertEquals(List.of("rosa"), search(repository, "r", false, 0, 10), "Short queries match by prefix");
+        assertTrue(search(repository, "lopezz", false, 0, 10).isEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "columnar"})
+    public void testSearchIndexFollowsUpdates(String storage) {
+        UserRepository repository = new UserRepository(UserStorage.create(storage));
+
+        repository.save(new User(1L, "root", "root@example.com", "secret"));
+
+        assertTrue(search(repository, "admin", false, 0, 10).isEmpty());
+        assertEquals(List.of("root"), search(repository, "roo", true, 0, 10));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testSearchFollowsOutOfOrderInsertsAndRemovals(boolean searchIndexed) {
+        UserRepository repository = new UserRepository(UserStorage.create("heap"), UserJournal.NONE, searchIndexed);
+        int users = UserSearchIndex.CHUNK_SIZE * 4;
+        // Ids decrecientes: cada alta cae delante de las anteriores en las listas del índice
+        for (long id = users + 10; id > 10; id--) {
+            repository.save(new User(id, "chunk" + id, "chunk" + id + "@example.org", "p"));
+        }
+        // Se retira uno de cada tres de la búsqueda cambiando su email
+        List<String> expected = new ArrayList<>();
+        for (long id = 11; id <= users + 10; id++) {
+            if (id % 3 == 0) {
+                repository.save(new User(id, "moved" + id, "moved" + id + "@example.net", "p"));
+            } else {
+                expected.add("chunk" + id);
+            }
+        }
+
+        List<String> found = new ArrayList<>();
+        long after = 0;
+        List<String> page;
+        do {
+            page = search(repository, "@example.org", false, after, 100);
+            found.addAll(page);
+            if (!page.isEmpty()) {
+                after = repository.findByUsername(page.get(page.size() - 1)).orElseThrow().getId();
+            }
+        } while (page.size() == 100);
+
+        assertEquals(expected, found);
+        assertEquals(List.of("moved12"), search(repository, "moved1", true, 0, 1));
+    }
+
+    private static List<String> search(UserRepository repository, String query, boolean prefixOnly,
+                                       long after, int limit) {
+        List<String> usernames = new ArrayList<>();
+        repository.search(query, prefixOnly, after, limit, user -> usernames.add(user.getUsername()));
+        return usernames;
+    }
+}
@@ -0,0 +1,101 @@
+package pe.edu.vallegrande.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingServiceTest {
+
+    /** Encoder que no termina hasta que se abre el latch, para saturar el pool a voluntad. */
+    private static PasswordEncoder blockingEncoder(CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals("hashed:" + rawPassword);
+            }
+        };
+    }
+
+    @Test
+    public void testHashRunsOffCallerThreadAndVerifies() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService service = new PasswordHashingService(4, 1, 8, registry);
+        try {
+            String hash = service.hash("s3cret").get(10, TimeUnit.SECONDS);
+
+            assertTrue(hash.startsWith("$2a$04$"));
+            assertTrue(service.matches("s3cret", hash));
+            assertFalse(service.matches("other", hash));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testFullQueueRejectsImmediatelyAndIsMetered() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHashingService service = new PasswordHashingService(blockingEncoder(release), 1, 1, registry);
+        try {
+            CompletableFuture<String> running = service.hash("a");
+            awaitEmptyQueue(service);
+            CompletableFuture<String> queued = service.hash("b");
+            CompletableFuture<String> rejected = service.hash("c");
+
+            ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+            assertEquals(1, service.queueDepth());
+            assertEquals(1.0, registry.get("executor.queued").tag("name", PasswordHashingService.METRIC_NAME)
+                    .gauge().value());
+            assertEquals(1.0, registry.get(PasswordHashingService.REJECTED_METRIC).counter().count());
+
+            release.countDown();
+            assertEquals("hashed:a", running.get(10, TimeUnit.SECONDS));
+            assertEquals("hashed:b", queued.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testHashAllWaitsForCapacityInsteadOfRejecting() {
+        PasswordHashingService service = new PasswordHashingService(4, 1, 2, new SimpleMeterRegistry());
+        try {
+            List<String> hashes = service.hashAll(List.of("p1", "p2", "p3", "p4", "p5", "p6", "p7"));
+
+            assertEquals(7, hashes.size());
+            for (int i = 0; i < hashes.size(); i++) {
+                assertTrue(service.matches("p" + (i + 1), hashes.get(i)));
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static void awaitEmptyQueue(PasswordHashingService service) throws InterruptedException {
+        // El primer hash debe salir de la cola para que el segundo ocupe su único hueco
+        for (int i = 0; i < 1000 && service.queueDepth() > 0; i++) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package pe.edu.vallegrande.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import pe.edu.vallegrande.dto.UserResponseDto;
+import pe.edu.vallegrande.model.User;
+import pe.edu.vallegrande.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserLookupServiceTest {
+
+    private final UserRepository repository = new UserRepository();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+
+    private UserLookupService service(long maximumSize) {
+        return new UserLookupService(repository, maximumSize, Duration.ofMinutes(10), Duration.ofSeconds(30),
+                nanos::get, registry);
+    }
+
+    @Test
+    public void testHitsAreServedFromCacheAndMetered() {
+        UserLookupService service = service(100);
+
+        UserResponseDto first = service.findById(1).orElseThrow();
+        UserResponseDto second = service.findById(1).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("admin", first.getUsername());
+        assertEquals("admin", service.findByEmail("admin@example.com").orElseThrow().getUsername());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", UserLookupService.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", UserLookupService.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void testNotFoundIsCachedUntilInvalidatedOrExpired() {
+        UserLookupService service = service(100);
+        assertTrue(service.findById(3).isEmpty());
+        assertTrue(service.findByUsername("maria").isEmpty());
+
+        User created = repository.save(new User(null, "maria", "maria@example.com", "hash"));
+        assertEquals(3L, created.getId());
+        assertTrue(service.findById(3).isEmpty(), "The 404 stays cached until the write invalidates it");
+
+        service.invalidate(created);
+        assertEquals("maria", service.findById(3).orElseThrow().getUsername());
+        assertEquals(3L, service.findByUsername("maria").orElseThrow().getId());
+
+        assertTrue(service.findById(4).isEmpty());
+        repository.saveAll(List.of(new User(null, "pedro", null, "hash")));
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertEquals("pedro", service.findById(4).orElseThrow().getUsername(), "Negative entries expire sooner");
+        assertEquals("maria", service.findById(3).orElseThrow().getUsername());
+    }
+
+    @Test
+    public void testSizeIsBoundedAndEvictionsAreMetered() {
+        UserLookupService service = service(10);
+        for (int i = 0; i < 200; i++) {
+            repository.save(new User(null, "user" + i, null, "hash"));
+        }
+        for (long id = 1; id <= 200; id++) {
+            service.findById(id);
+        }
+        service.cleanUp();
+
+        assertTrue(registry.get("cache.size").tag("cache", UserLookupService.CACHE_NAME).gauge().value() <= 10);
+        assertTrue(registry.get("cache.evictions").tag("cache", UserLookupService.CACHE_NAME)
+                .functionCounter().count() >= 190);
+    }
+}